@@ -0,0 +1,54 @@
+package gr.aueb.cf.tourapp.core.filters;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gr.aueb.cf.tourapp.dto.*;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a page of bookings as the paginated endpoints return it, with an object mapper set up
+ * the way Spring Boot sets up the application's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaginatedSerializationBenchmark {
+
+    @Param({"20", "100", "1000"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Paginated<BookingReadOnlyDTO> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<BookingReadOnlyDTO> bookings = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            TourReadOnlyDTO tour = new TourReadOnlyDTO(id % 20, "Tour " + id % 20, 10.0 * (id % 20));
+            GuideReadOnlyDTO guide = id % 3 == 0 ? null : new GuideReadOnlyDTO(id, "guide-uuid-" + id, true,
+                    new UserReadOnlyDTO("First " + id, "Last " + id, String.valueOf(200000000 + id)), tour);
+            CustomerReadOnlyDTO customer = new CustomerReadOnlyDTO(id, "customer-uuid-" + id, true,
+                    new UserReadOnlyDTO("First " + id, "Last " + id, String.valueOf(100000000 + id)));
+            bookings.add(new BookingReadOnlyDTO(id, LocalDate.now().plusDays(id % 365), guide, tour, customer));
+        }
+        page = new Paginated<>(new PageImpl<>(bookings, PageRequest.of(0, pageSize), 50L * pageSize));
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,102 @@
+package gr.aueb.cf.tourapp.core.specifications;
+
+import gr.aueb.cf.tourapp.TourApplication;
+import gr.aueb.cf.tourapp.model.Booking;
+import gr.aueb.cf.tourapp.model.Guide;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the criteria of a filtered search, before any SQL runs: the specifications of every
+ * booking or guide filter turned into predicates, and Hibernate turning the criteria into a query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpecificationBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private CriteriaBuilder criteriaBuilder;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(TourApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:specbench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.sql.init.mode=never",
+                "--spring.jpa.show-sql=false",
+                "--server.port=0",
+                "--management.server.port=0",
+                "--logging.level.root=WARN",
+                "--app.assignment.enabled=false");
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        criteriaBuilder = entityManager.getCriteriaBuilder();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public CriteriaQuery<Booking> bookingCriteria() {
+        return criteria(Booking.class, bookingFilters());
+    }
+
+    @Benchmark
+    public CriteriaQuery<Guide> guideCriteria() {
+        return criteria(Guide.class, guideFilters());
+    }
+
+    @Benchmark
+    public TypedQuery<Booking> bookingQuery() {
+        return entityManager.createQuery(criteria(Booking.class, bookingFilters()));
+    }
+
+    // Every filter of BookingService.getBookingsFilteredPaginated set
+    private static Specification<Booking> bookingFilters() {
+        return Specification
+                .where(BookingSpecification.bookingDateIs(LocalDate.of(2030, 5, 1)))
+                .and(BookingSpecification.bookingPriceLessThan(80.0))
+                .and(BookingSpecification.bookingTourCategoryIs("Hiking"))
+                .and(BookingSpecification.bookingGuideIdIs(7L))
+                .and(BookingSpecification.bookingCustomerIdIs(11L))
+                .and(BookingSpecification.bookingCustomerLastnameIs("Papadopoulos"))
+                .and(BookingSpecification.bookingCustomerIsActive(true));
+    }
+
+    // Every filter of GuideService's filtered search set
+    private static Specification<Guide> guideFilters() {
+        return Specification
+                .where(GuideSpecification.guideFieldLike("uuid", "3f2a"))
+                .and(GuideSpecification.guideUserVatIs("200000007"))
+                .and(GuideSpecification.guideTourIs("Hiking"))
+                .and(GuideSpecification.guideIsActive(true));
+    }
+
+    private <T> CriteriaQuery<T> criteria(Class<T> entity, Specification<T> specification) {
+        CriteriaQuery<T> query = criteriaBuilder.createQuery(entity);
+        Root<T> root = query.from(entity);
+        query.where(specification.toPredicate(root, query, criteriaBuilder));
+        return query;
+    }
+}
@@ -0,0 +1,102 @@
+package gr.aueb.cf.tourapp.mapper;
+
+import gr.aueb.cf.tourapp.core.enums.GenderType;
+import gr.aueb.cf.tourapp.core.enums.Role;
+import gr.aueb.cf.tourapp.dto.BookingReadOnlyDTO;
+import gr.aueb.cf.tourapp.model.*;
+import gr.aueb.cf.tourapp.repository.TourRepository;
+import gr.aueb.cf.tourapp.repository.projections.BookingProjection;
+import gr.aueb.cf.tourapp.repository.projections.TourProjection;
+import gr.aueb.cf.tourapp.service.TourCatalog;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping a page of bookings to read-only DTOs, from fully loaded entity graphs (customer, user,
+ * guide, guide's tour, tour) and from the flat projections the repositories return now.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final int TOURS = 20;
+
+    @Param({"100", "10000"})
+    private int bookings;
+
+    private Mapper mapper;
+    private List<Booking> entities;
+    private List<BookingProjection> projections;
+
+    @Setup
+    public void setUp() {
+        List<Tour> tours = new ArrayList<>();
+        for (long id = 1; id <= TOURS; id++) {
+            tours.add(Tour.builder().id(id).category("Tour " + id).price(10.0 * id).build());
+        }
+        // The catalog is the only collaborator of the read-only mappings
+        TourRepository tourRepository = (TourRepository) Proxy.newProxyInstance(TourRepository.class.getClassLoader(),
+                new Class<?>[]{TourRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findAllProjectedBy")) throw new UnsupportedOperationException(method.getName());
+                    return tours.stream().map(tour -> new TourProjection(tour.getId(), tour.getCategory(), tour.getPrice())).toList();
+                });
+        mapper = new Mapper(null, null, null, null, new TourCatalog(tourRepository, Duration.ofDays(1)));
+
+        entities = new ArrayList<>(bookings);
+        projections = new ArrayList<>(bookings);
+        for (long id = 1; id <= bookings; id++) {
+            Tour tour = tours.get((int) (id % TOURS));
+            Customer customer = Customer.builder().id(id).uuid("customer-" + id).isActive(true)
+                    .user(user(id, "customer" + id, Role.CUSTOMER)).build();
+            Guide guide = id % 3 == 0 ? null : Guide.builder().id(id).uuid("guide-" + id).isActive(true).tour(tour)
+                    .user(user(bookings + id, "guide" + id, Role.GUIDE)).build();
+            LocalDate date = LocalDate.now().plusDays(id % 365);
+            entities.add(Booking.builder().id(id).bookingDate(date).customer(customer).guide(guide).tour(tour).build());
+            projections.add(new BookingProjection(id, date,
+                    id, customer.getUuid(), true, "First " + id, "Last " + id, String.valueOf(100000000 + id),
+                    guide == null ? null : id, guide == null ? null : guide.getUuid(), guide == null ? null : true,
+                    guide == null ? null : "First " + id, guide == null ? null : "Last " + id,
+                    guide == null ? null : String.valueOf(200000000 + id),
+                    guide == null ? null : tour.getId(), guide == null ? null : tour.getCategory(),
+                    guide == null ? null : tour.getPrice(),
+                    tour.getId(), tour.getCategory(), tour.getPrice()));
+        }
+    }
+
+    @Benchmark
+    public void entityGraphs(Blackhole blackhole) {
+        for (Booking booking : entities) {
+            blackhole.consume(mapper.mapToBookingReadOnlyDTO(booking));
+        }
+    }
+
+    @Benchmark
+    public List<BookingReadOnlyDTO> projectionsToList() {
+        return projections.stream().map(mapper::mapToBookingReadOnlyDTO).toList();
+    }
+
+    private static User user(long id, String username, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setFirstname("First " + id);
+        user.setLastname("Last " + id);
+        user.setVat(String.valueOf(100000000 + id));
+        user.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        user.setGenderType(GenderType.OTHER);
+        user.setRole(role);
+        user.setIsActive(true);
+        return user;
+    }
+}
@@ -0,0 +1,146 @@
+package gr.aueb.cf.tourapp.rest;
+
+import gr.aueb.cf.tourapp.TourApplication;
+import gr.aueb.cf.tourapp.core.enums.GenderType;
+import gr.aueb.cf.tourapp.core.enums.Role;
+import gr.aueb.cf.tourapp.model.*;
+import gr.aueb.cf.tourapp.repository.BookingRepository;
+import gr.aueb.cf.tourapp.repository.CustomerRepository;
+import gr.aueb.cf.tourapp.repository.GuideRepository;
+import gr.aueb.cf.tourapp.repository.TourRepository;
+import gr.aueb.cf.tourapp.security.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bursts of concurrent requests to the booking endpoints over HTTP, served by platform or virtual
+ * threads, on an in-memory H2 (MySQL mode) with the default pool of 10 connections. The score is
+ * the time to answer a whole burst; requests per second are {@code concurrency / score}. Virtual
+ * threads need Java 21, on an older JDK both modes run on the platform pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class BookingEndpointsLoadBenchmark {
+
+    private static final int CUSTOMERS = 200;
+    private static final int DAYS = 3;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"100", "1000"})
+    private int concurrency;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private final List<String> customerTokens = new ArrayList<>();
+    private String guideToken;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(TourApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:loadbench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.sql.init.mode=never",
+                "--spring.jpa.show-sql=false",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--server.port=0",
+                "--management.server.port=0",
+                "--logging.level.root=WARN",
+                "--app.assignment.enabled=false");
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        JwtService jwtService = context.getBean(JwtService.class);
+        Tour tour = context.getBean(TourRepository.class).save(Tour.builder().category("Hiking").price(50.0).build());
+        context.getBean(GuideRepository.class).save(Guide.builder().isActive(true).tour(tour)
+                .user(user("guide", Role.GUIDE, "200000000")).build());
+        guideToken = jwtService.generateToken("guide", Role.GUIDE.name());
+
+        CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer customer = customerRepository.save(Customer.builder().isActive(true)
+                    .user(user("customer" + i, Role.CUSTOMER, String.valueOf(100000000 + i))).build());
+            List<Booking> bookings = new ArrayList<>();
+            for (int day = 1; day <= DAYS; day++) {
+                bookings.add(Booking.builder().bookingDate(LocalDate.now().plusDays(day)).customer(customer).tour(tour).build());
+            }
+            bookingRepository.saveAll(bookings);
+            customerTokens.add(jwtService.generateToken(customer.getUser().getUsername(), Role.CUSTOMER.name()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public int customerBookings() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            responses.add(send("/api/customers/bookings", customerTokens.get(i % CUSTOMERS)));
+        }
+        return await(responses);
+    }
+
+    @Benchmark
+    public int availableBookings() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            responses.add(send("/api/guides/available-bookings", guideToken));
+        }
+        return await(responses);
+    }
+
+    private CompletableFuture<HttpResponse<Void>> send(String path, String token) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static int await(List<CompletableFuture<HttpResponse<Void>>> responses) {
+        int failed = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() != 200) failed++;
+        }
+        if (failed > 0) throw new IllegalStateException(failed + " of " + responses.size() + " requests failed");
+        return responses.size();
+    }
+
+    private static User user(String username, Role role, String vat) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setFirstname("First " + username);
+        user.setLastname("Last " + username);
+        user.setVat(vat);
+        user.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        user.setGenderType(GenderType.OTHER);
+        user.setRole(role);
+        user.setIsActive(true);
+        return user;
+    }
+}
@@ -0,0 +1,81 @@
+package gr.aueb.cf.tourapp.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token. {@code legacyFilterPath} repeats what the
+ * filter did before verify(): four full parses, each rebuilding the key and the parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "5ce98d378ec88ea09ba8bcd511ef23645f04cc8e70b9134b98723a53c275bbc5";
+
+    private JwtService cachingJwtService;
+    private JwtService uncachedJwtService;
+    private String token;
+    private UserDetails userDetails;
+
+    @Setup
+    public void setUp() {
+        JwtKeySet keySet = new JwtKeySet(SignatureAlgorithm.HS256, SECRET, "", "", Duration.ZERO);
+        cachingJwtService = new JwtService(keySet, 10_000, Duration.ofMinutes(1));
+        uncachedJwtService = new JwtService(keySet, 0, Duration.ZERO);
+        token = cachingJwtService.generateToken("customer@aueb.gr", "CUSTOMER");
+        userDetails = User.withUsername("customer@aueb.gr").password("secret").authorities("CUSTOMER").build();
+    }
+
+    @Benchmark
+    public void legacyFilterPath(Blackhole blackhole) {
+        blackhole.consume(legacyParse(token).getSubject());
+        blackhole.consume(legacyParse(token).get("role", String.class));
+        blackhole.consume(legacyParse(token).getSubject());
+        blackhole.consume(legacyParse(token).getExpiration().before(new Date()));
+    }
+
+    @Benchmark
+    public Claims verifyUncached() {
+        return uncachedJwtService.verify(token);
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return cachingJwtService.verify(token);
+    }
+
+    // The filter's path when app.jwt.stateless is off, minus the user lookup
+    @Benchmark
+    public boolean validateUncached() {
+        return uncachedJwtService.isTokenValid(token, userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingJwtService.generateToken("customer@aueb.gr", "CUSTOMER");
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,45 @@
+package gr.aueb.cf.tourapp.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of token generation and (uncached) verification for the shared-secret and the
+ * asymmetric signing modes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtSigningBenchmark {
+
+    private static final String SECRET = "5ce98d378ec88ea09ba8bcd511ef23645f04cc8e70b9134b98723a53c275bbc5";
+
+    @Param({"HS256", "RS256"})
+    private SignatureAlgorithm algorithm;
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(new JwtKeySet(algorithm, SECRET, "", "bench", Duration.ZERO), 0, Duration.ZERO);
+        token = jwtService.generateToken("guide@aueb.gr", "GUIDE");
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtService.generateToken("guide@aueb.gr", "GUIDE");
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return jwtService.verify(token);
+    }
+}
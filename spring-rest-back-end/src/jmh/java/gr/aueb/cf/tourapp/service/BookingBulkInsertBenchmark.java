@@ -0,0 +1,111 @@
+package gr.aueb.cf.tourapp.service;
+
+import gr.aueb.cf.tourapp.TourApplication;
+import gr.aueb.cf.tourapp.core.enums.GenderType;
+import gr.aueb.cf.tourapp.core.enums.Role;
+import gr.aueb.cf.tourapp.dto.BookingInsertDTO;
+import gr.aueb.cf.tourapp.model.Customer;
+import gr.aueb.cf.tourapp.model.Tour;
+import gr.aueb.cf.tourapp.model.User;
+import gr.aueb.cf.tourapp.repository.CustomerRepository;
+import gr.aueb.cf.tourapp.repository.TourRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second inserting the bookings of one customer, on an in-memory H2 (MySQL mode).
+ * {@code bulk} is {@link BookingService#saveBookings} with one JDBC batch; {@code singleRow} saves
+ * the same rows one {@link BookingService#saveBooking} at a time. H2 has no network round trip, so
+ * the gap against MySQL with rewriteBatchedStatements is wider than measured here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class BookingBulkInsertBenchmark {
+
+    private static final int ROWS = 100;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private int customers;
+    private final LocalDate firstDate = LocalDate.now().plusDays(1);
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(TourApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:bulkbench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.sql.init.mode=never",
+                "--spring.jpa.show-sql=false",
+                "--server.port=0",
+                "--management.server.port=0",
+                "--logging.level.root=WARN");
+        bookingService = context.getBean(BookingService.class);
+        context.getBean(TourRepository.class).save(Tour.builder().category("Hiking").price(50.0).build());
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int bulk() {
+        return bookingService.saveBookings(insertDTOs(), nextCustomer()).size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int singleRow() {
+        String username = nextCustomer();
+        int saved = 0;
+        for (BookingInsertDTO insertDTO : insertDTOs()) {
+            bookingService.saveBooking(insertDTO, username);
+            saved++;
+        }
+        return saved;
+    }
+
+    // A fresh customer per invocation, so the same dates can be booked again
+    private String nextCustomer() {
+        String username = "customer" + customers;
+        context.getBean(CustomerRepository.class).save(Customer.builder().isActive(true)
+                .user(user(username, String.valueOf(100000000 + customers++))).build());
+        return username;
+    }
+
+    private List<BookingInsertDTO> insertDTOs() {
+        List<BookingInsertDTO> insertDTOs = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            insertDTOs.add(new BookingInsertDTO(firstDate.plusDays(i), "Hiking"));
+        }
+        return insertDTOs;
+    }
+
+    private static User user(String username, String vat) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setFirstname("First " + username);
+        user.setLastname("Last " + username);
+        user.setVat(vat);
+        user.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        user.setGenderType(GenderType.OTHER);
+        user.setRole(Role.CUSTOMER);
+        user.setIsActive(true);
+        return user;
+    }
+}
@@ -0,0 +1,64 @@
+package gr.aueb.cf.tourapp.service;
+
+import gr.aueb.cf.tourapp.repository.projections.AssignableBooking;
+import gr.aueb.cf.tourapp.repository.projections.GuideDay;
+import gr.aueb.cf.tourapp.repository.projections.GuideTour;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to plan a year of bookings in memory, 100k of them unassigned, for 2,000 guides over
+ * 20 tours, a tenth of the guide days already taken.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GuideAssignmentPlannerBenchmark {
+
+    private static final int TOURS = 20;
+    private static final int DAYS = 365;
+
+    @Param({"100000"})
+    private int bookings;
+
+    @Param({"2000"})
+    private int guides;
+
+    private List<AssignableBooking> unassigned;
+    private List<GuideTour> guideTours;
+    private List<GuideDay> assigned;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate start = LocalDate.now().plusDays(1);
+
+        guideTours = new ArrayList<>(guides);
+        for (long id = 1; id <= guides; id++) {
+            guideTours.add(new GuideTour(id, id % TOURS + 1));
+        }
+        unassigned = new ArrayList<>(bookings);
+        for (long id = 1; id <= bookings; id++) {
+            unassigned.add(new AssignableBooking(id, start.plusDays(random.nextInt(DAYS)), (long) random.nextInt(TOURS) + 1));
+        }
+        assigned = new ArrayList<>();
+        for (long id = 1; id <= guides; id++) {
+            for (int day = 0; day < DAYS; day++) {
+                if (random.nextInt(10) == 0) assigned.add(new GuideDay(id, start.plusDays(day)));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<GuideAssignmentPlanner.Assignment> plan() {
+        return GuideAssignmentPlanner.plan(unassigned, guideTours, assigned);
+    }
+}
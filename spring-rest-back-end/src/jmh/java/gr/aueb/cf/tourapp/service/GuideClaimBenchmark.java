@@ -0,0 +1,148 @@
+package gr.aueb.cf.tourapp.service;
+
+import gr.aueb.cf.tourapp.TourApplication;
+import gr.aueb.cf.tourapp.core.enums.GenderType;
+import gr.aueb.cf.tourapp.core.enums.Role;
+import gr.aueb.cf.tourapp.core.exceptions.AppGenericException;
+import gr.aueb.cf.tourapp.core.specifications.BookingSpecification;
+import gr.aueb.cf.tourapp.model.*;
+import gr.aueb.cf.tourapp.repository.BookingRepository;
+import gr.aueb.cf.tourapp.repository.CustomerRepository;
+import gr.aueb.cf.tourapp.repository.GuideRepository;
+import gr.aueb.cf.tourapp.repository.TourRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guides racing for the same bookings on an in-memory H2 (MySQL mode). {@code conditionalClaim}
+ * is the current {@link BookingService#updateBookingGuide}; {@code loadCheckAndSave} is the
+ * read-then-write claim it replaced. Every attempt counts, won or lost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(8)
+@Fork(1)
+public class GuideClaimBenchmark {
+
+    private static final int GUIDES = 64;
+    private static final int CUSTOMERS = 50;
+    private static final int DAYS = 40;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private BookingRepository bookingRepository;
+    private GuideRepository guideRepository;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private final List<Long> bookingIds = new ArrayList<>();
+    private final List<Long> guideIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(TourApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:claimbench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.sql.init.mode=never",
+                "--spring.jpa.show-sql=false",
+                "--server.port=0",
+                "--management.server.port=0",
+                "--logging.level.root=WARN",
+                "--app.assignment.enabled=false",
+                "--logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=OFF");
+        bookingService = context.getBean(BookingService.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        guideRepository = context.getBean(GuideRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        Tour tour = context.getBean(TourRepository.class).save(Tour.builder().category("Hiking").price(50.0).build());
+        for (int i = 0; i < GUIDES; i++) {
+            guideIds.add(guideRepository.save(Guide.builder().isActive(true).tour(tour)
+                    .user(user("guide" + i, Role.GUIDE, String.valueOf(200000000 + i))).build()).getId());
+        }
+        CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer customer = customerRepository.save(Customer.builder().isActive(true)
+                    .user(user("customer" + i, Role.CUSTOMER, String.valueOf(100000000 + i))).build());
+            List<Booking> bookings = new ArrayList<>();
+            for (int day = 1; day <= DAYS; day++) {
+                bookings.add(Booking.builder().bookingDate(LocalDate.now().plusDays(day)).customer(customer).tour(tour).build());
+            }
+            bookingRepository.saveAll(bookings).forEach(booking -> bookingIds.add(booking.getId()));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void releaseBookings() {
+        jdbcTemplate.update("update bookings set guide_id = null");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean conditionalClaim() {
+        try {
+            bookingService.updateBookingGuide(randomBooking(), "guide" + ThreadLocalRandom.current().nextInt(GUIDES));
+            return true;
+        } catch (AppGenericException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean loadCheckAndSave() {
+        Long bookingId = randomBooking();
+        Long guideId = guideIds.get(ThreadLocalRandom.current().nextInt(GUIDES));
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+                if (bookingRepository.exists(BookingSpecification.bookingDateIs(booking.getBookingDate())
+                        .and(BookingSpecification.bookingGuideIdIs(guideId)))) {
+                    return false;
+                }
+                booking.setGuide(guideRepository.getReferenceById(guideId));
+                bookingRepository.saveAndFlush(booking);
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private Long randomBooking() {
+        return bookingIds.get(ThreadLocalRandom.current().nextInt(bookingIds.size()));
+    }
+
+    private static User user(String username, Role role, String vat) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setFirstname("First " + username);
+        user.setLastname("Last " + username);
+        user.setVat(vat);
+        user.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        user.setGenderType(GenderType.OTHER);
+        user.setRole(role);
+        user.setIsActive(true);
+        return user;
+    }
+}
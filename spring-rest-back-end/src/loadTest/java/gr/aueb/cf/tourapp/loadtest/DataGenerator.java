@@ -0,0 +1,145 @@
+package gr.aueb.cf.tourapp.loadtest;
+
+import gr.aueb.cf.tourapp.core.enums.GenderType;
+import gr.aueb.cf.tourapp.core.enums.Role;
+import gr.aueb.cf.tourapp.model.*;
+import gr.aueb.cf.tourapp.repository.BookingRepository;
+import gr.aueb.cf.tourapp.repository.CustomerRepository;
+import gr.aueb.cf.tourapp.repository.GuideRepository;
+import gr.aueb.cf.tourapp.repository.TourRepository;
+import gr.aueb.cf.tourapp.repository.UserRepository;
+import gr.aueb.cf.tourapp.service.TourCatalog;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Fills the database through the repositories' JDBC batch inserts, a batch at a time. The same
+ * seed always gives the same rows.
+ *
+ * <p>Customers book one tour a day on consecutive days from tomorrow on, until there are as many
+ * bookings as asked for. The first customers' bookings on even days come with a guide of their own
+ * (customer i with guide i), which keeps the guide/date pairs unique; the rest are left for the
+ * guides to claim.
+ */
+public class DataGenerator {
+
+    private static final int LASTNAMES = 1000;
+
+    private final ApplicationContext context;
+    private final LoadTestSettings settings;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    public DataGenerator(ApplicationContext context, LoadTestSettings settings) {
+        this.context = context;
+        this.settings = settings;
+    }
+
+    public SeededData seed() {
+        String password = context.getBean(PasswordEncoder.class).encode(settings.password());
+
+        List<Tour> tours = new ArrayList<>(settings.tours());
+        for (int i = 0; i < settings.tours(); i++) {
+            tours.add(Tour.builder().category("Tour " + i).price(20.0 + 5 * i).build());
+        }
+        context.getBean(TourRepository.class).saveAll(tours);
+        context.getBean(TourCatalog.class).invalidate();
+
+        context.getBean(UserRepository.class).save(user("admin", Role.ADMIN, "300000000", password));
+
+        GuideRepository guideRepository = context.getBean(GuideRepository.class);
+        List<Guide> guides = new ArrayList<>(settings.guides());
+        for (int from = 0; from < settings.guides(); from += settings.batchSize()) {
+            List<Guide> batch = new ArrayList<>();
+            for (int i = from; i < Math.min(from + settings.batchSize(), settings.guides()); i++) {
+                batch.add(Guide.builder().isActive(true).tour(tours.get(i % tours.size()))
+                        .user(user("guide" + i, Role.GUIDE, SeededData.guideVat(i), password)).build());
+            }
+            guideRepository.insertAll(batch);
+            guides.addAll(batch);
+        }
+
+        CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+        List<Customer> customers = new ArrayList<>(settings.customers());
+        for (int from = 0; from < settings.customers(); from += settings.batchSize()) {
+            List<Customer> batch = new ArrayList<>();
+            for (int i = from; i < Math.min(from + settings.batchSize(), settings.customers()); i++) {
+                batch.add(Customer.builder().isActive(i % 20 != 0)
+                        .user(user("customer" + i, Role.CUSTOMER, SeededData.customerVat(i), password)).build());
+            }
+            customerRepository.insertAll(batch);
+            customers.addAll(batch);
+        }
+
+        int days = Math.max(1, (settings.bookings() + customers.size() - 1) / customers.size());
+        long[] unassigned = insertBookings(tours, guides, customers, days);
+
+        return new SeededData(customers.size(), guides.size(), days,
+                tours.stream().map(Tour::getCategory).toList(), LASTNAMES, unassigned);
+    }
+
+    private long[] insertBookings(List<Tour> tours, List<Guide> guides, List<Customer> customers, int days) {
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        LocalDate today = LocalDate.now();
+        long[] unassigned = new long[settings.bookings()];
+        int unassignedCount = 0;
+        int remaining = settings.bookings();
+
+        List<Booking> batch = new ArrayList<>(settings.batchSize());
+        for (int day = 1; day <= days && remaining > 0; day++) {
+            for (int c = 0; c < customers.size() && remaining > 0; c++, remaining--) {
+                Guide guide = c < guides.size() && day % 2 == 0 ? guides.get(c) : null;
+                batch.add(Booking.builder()
+                        .bookingDate(today.plusDays(day))
+                        .customer(customers.get(c))
+                        .guide(guide)
+                        .tour(guide != null ? guide.getTour() : tours.get((c + day) % tours.size()))
+                        .build());
+
+                if (batch.size() == settings.batchSize()) {
+                    unassignedCount = insert(bookingRepository, batch, unassigned, unassignedCount);
+                }
+            }
+        }
+        unassignedCount = insert(bookingRepository, batch, unassigned, unassignedCount);
+
+        long[] ids = Arrays.copyOf(unassigned, unassignedCount);
+        // Claims arrive for any day, not in insertion order
+        for (int i = ids.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long id = ids[i];
+            ids[i] = ids[j];
+            ids[j] = id;
+        }
+        return ids;
+    }
+
+    private static int insert(BookingRepository bookingRepository, List<Booking> batch, long[] unassigned, int count) {
+        bookingRepository.insertAll(batch);
+        for (Booking booking : batch) {
+            if (booking.getGuide() == null) unassigned[count++] = booking.getId();
+        }
+        batch.clear();
+        return count;
+    }
+
+    private User user(String username, Role role, String vat, String password) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword(password);
+        user.setFirstname("Firstname" + random.nextInt(LASTNAMES));
+        user.setLastname(SeededData.lastname(random.nextInt(LASTNAMES)));
+        user.setEmail(username + "@tourapp.gr");
+        user.setVat(vat);
+        user.setDateOfBirth(LocalDate.of(1950, 1, 1).plusDays(random.nextInt(50 * 365)));
+        user.setGenderType(GenderType.values()[random.nextInt(GenderType.values().length)]);
+        user.setRole(role);
+        user.setIsActive(true);
+        return user;
+    }
+}
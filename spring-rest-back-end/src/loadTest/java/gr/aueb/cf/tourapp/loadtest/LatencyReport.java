@@ -0,0 +1,140 @@
+package gr.aueb.cf.tourapp.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import gr.aueb.cf.tourapp.dto.SlowQueryDTO;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Response times and outcomes per scenario, counted only between {@link #start()} and
+ * {@link #stop()} so that the warm-up is left out. Times are in microseconds up to a minute, to
+ * three significant digits.
+ */
+public class LatencyReport {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<Scenario, Outcomes> outcomes = new EnumMap<>(Scenario.class);
+    private volatile boolean measuring;
+    private long startedAt;
+    private long stoppedAt;
+
+    public LatencyReport() {
+        for (Scenario scenario : Scenario.values()) outcomes.put(scenario, new Outcomes());
+    }
+
+    public void start() {
+        startedAt = System.nanoTime();
+        measuring = true;
+    }
+
+    public void stop() {
+        measuring = false;
+        stoppedAt = System.nanoTime();
+    }
+
+    /**
+     * @param status the HTTP status, or 0 when no response came
+     */
+    public void record(Scenario scenario, long elapsedNanos, int status) {
+        if (!measuring) return;
+
+        Outcomes scenarioOutcomes = outcomes.get(scenario);
+        scenarioOutcomes.latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), HIGHEST_MICROS));
+        if (status / 100 == 2) scenarioOutcomes.succeeded.increment();
+        else if (status == 409) scenarioOutcomes.conflicts.increment();
+        else scenarioOutcomes.failed.computeIfAbsent(status, code -> new LongAdder()).increment();
+    }
+
+    public Result result(LoadTestSettings settings, List<SlowQueryDTO> slowQueries) {
+        double seconds = (stoppedAt - startedAt) / 1e9;
+        List<ScenarioResult> scenarios = new ArrayList<>();
+        Histogram all = new Histogram(HIGHEST_MICROS, 3);
+        long succeeded = 0, conflicts = 0;
+        Map<Integer, Long> failed = new TreeMap<>();
+        for (Map.Entry<Scenario, Outcomes> entry : outcomes.entrySet()) {
+            Outcomes scenarioOutcomes = entry.getValue();
+            if (scenarioOutcomes.latencies.getTotalCount() == 0) continue;
+            scenarios.add(ScenarioResult.of(entry.getKey().getLabel(), scenarioOutcomes.latencies, seconds,
+                    scenarioOutcomes.succeeded.sum(), scenarioOutcomes.conflicts.sum(), scenarioOutcomes.failures()));
+            all.add(scenarioOutcomes.latencies);
+            succeeded += scenarioOutcomes.succeeded.sum();
+            conflicts += scenarioOutcomes.conflicts.sum();
+            scenarioOutcomes.failures().forEach((status, count) -> failed.merge(status, count, Long::sum));
+        }
+        return new Result(settings, seconds, ScenarioResult.of("all", all, seconds, succeeded, conflicts, failed),
+                scenarios, slowQueries);
+    }
+
+    public static void print(Result result, PrintStream out) {
+        out.printf("%n%d virtual users for %.0f s%n", result.settings().users(), result.seconds());
+        out.printf("%-20s %9s %9s %7s %7s %9s %9s %9s %9s %9s %9s%n", "scenario", "requests", "ok", "409",
+                "failed", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (ScenarioResult scenario : result.scenarios()) print(scenario, out);
+        print(result.total(), out);
+    }
+
+    private static void print(ScenarioResult scenario, PrintStream out) {
+        long failed = scenario.failures().values().stream().mapToLong(Long::longValue).sum();
+        out.printf("%-20s %9d %9d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%s%n", scenario.scenario(),
+                scenario.requests(), scenario.succeeded(), scenario.conflicts(), failed,
+                scenario.throughput(), scenario.p50(), scenario.p90(), scenario.p99(), scenario.p999(), scenario.max(),
+                failed == 0 ? "" : "  by status " + scenario.failures());
+    }
+
+    public static void write(Result result, ObjectMapper objectMapper, Path path) throws IOException {
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), result);
+    }
+
+    private static final class Outcomes {
+        final ConcurrentHistogram latencies = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        final LongAdder succeeded = new LongAdder();
+        final LongAdder conflicts = new LongAdder();
+        final Map<Integer, LongAdder> failed = new ConcurrentSkipListMap<>();
+
+        Map<Integer, Long> failures() {
+            Map<Integer, Long> failures = new TreeMap<>();
+            failed.forEach((status, count) -> failures.put(status, count.sum()));
+            return failures;
+        }
+    }
+
+    public record Result(LoadTestSettings settings, double seconds, ScenarioResult total,
+                         List<ScenarioResult> scenarios, List<SlowQueryDTO> slowQueries) {
+    }
+
+    /**
+     * Requests per second, latencies in milliseconds and the other failures by HTTP status (0 for no response).
+     */
+    public record ScenarioResult(String scenario, long requests, long succeeded, long conflicts, Map<Integer, Long> failures,
+                                 double throughput, double mean, double p50, double p90, double p99,
+                                 double p999, double max) {
+
+        static ScenarioResult of(String scenario, Histogram latencies, double seconds,
+                                 long succeeded, long conflicts, Map<Integer, Long> failures) {
+            long requests = latencies.getTotalCount();
+            return new ScenarioResult(scenario, requests, succeeded, conflicts, failures, requests / seconds,
+                    latencies.getMean() / 1000, millis(latencies, 50), millis(latencies, 90), millis(latencies, 99),
+                    millis(latencies, 99.9), latencies.getMaxValue() / 1000.0);
+        }
+
+        private static double millis(Histogram latencies, double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+}
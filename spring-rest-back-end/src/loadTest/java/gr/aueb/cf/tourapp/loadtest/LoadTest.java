@@ -0,0 +1,116 @@
+package gr.aueb.cf.tourapp.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gr.aueb.cf.tourapp.TourApplication;
+import gr.aueb.cf.tourapp.core.sql.SlowQueryLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Boots the application on an in-memory H2 in MySQL mode, seeds it with {@link DataGenerator} and
+ * drives it over local HTTP with {@link VirtualUser}s. Latency percentiles and throughput per
+ * scenario are printed and written as JSON to {@code loadtest.report}.
+ *
+ * <p>Arguments are application properties, so the {@link LoadTestSettings} and any of the
+ * application's own settings (e.g. {@code --spring.datasource.hikari.maximum-pool-size=20}) can be
+ * given: {@code gradle loadTest -PloadTest.args="--loadtest.users=200 --loadtest.duration=PT5M"}.
+ */
+public class LoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadTest.class);
+
+    private static final Map<String, String> EMBEDDED = Map.ofEntries(
+            Map.entry("spring.datasource.url", "jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"),
+            Map.entry("spring.datasource.driver-class-name", "org.h2.Driver"),
+            Map.entry("spring.datasource.username", "sa"),
+            Map.entry("spring.datasource.password", ""),
+            Map.entry("spring.jpa.hibernate.ddl-auto", "create-drop"),
+            Map.entry("spring.sql.init.mode", "never"),
+            Map.entry("spring.jpa.show-sql", "false"),
+            Map.entry("server.port", "0"),
+            Map.entry("management.server.port", "0"),
+            Map.entry("logging.level.root", "ERROR"),
+            Map.entry("logging.level.gr.aueb.cf.tourapp.loadtest", "INFO"),
+            // Claims and bookings rejected by a unique key are counted as 409s
+            Map.entry("logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper", "OFF"),
+            Map.entry("app.assignment.enabled", "false"));
+
+    public static void main(String[] args) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TourApplication.class)
+                .run(withEmbeddedDatabase(args));
+        try {
+            LoadTestSettings settings = Binder.get(context.getEnvironment()).bindOrCreate("loadtest", LoadTestSettings.class);
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+
+            long seedingStart = System.nanoTime();
+            SeededData data = new DataGenerator(context, settings).seed();
+            LOGGER.info("Seeded {} tours, {} guides, {} customers and {} bookings in {} s", settings.tours(),
+                    data.getGuides(), data.getCustomers(), settings.bookings(),
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - seedingStart));
+
+            LatencyReport.Result result = run(context, settings, data, objectMapper);
+            LatencyReport.print(result, System.out);
+            LatencyReport.write(result, objectMapper, settings.report());
+            LOGGER.info("Report written to {}", settings.report().toAbsolutePath());
+        } finally {
+            context.close();
+        }
+    }
+
+    private static LatencyReport.Result run(ConfigurableApplicationContext context, LoadTestSettings settings,
+                                            SeededData data, ObjectMapper objectMapper) throws InterruptedException {
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        LatencyReport report = new LatencyReport();
+
+        // Closed model: each virtual user waits for its response before sending the next request
+        ExecutorService users = Executors.newFixedThreadPool(settings.users());
+        AtomicBoolean running = new AtomicBoolean(true);
+        for (int i = 0; i < settings.users(); i++) {
+            users.execute(new VirtualUser(i, client, baseUrl, objectMapper, data, settings, report, running::get));
+        }
+
+        LOGGER.info("{} virtual users warming up for {}", settings.users(), settings.warmup());
+        Thread.sleep(settings.warmup().toMillis());
+        // Only the statements of the measured traffic are reported
+        context.getBean(SlowQueryLog.class).clear();
+        report.start();
+        LOGGER.info("Measuring for {}", settings.duration());
+        Thread.sleep(settings.duration().toMillis());
+        report.stop();
+
+        running.set(false);
+        users.shutdown();
+        if (!users.awaitTermination(1, TimeUnit.MINUTES)) users.shutdownNow();
+
+        return report.result(settings, context.getBean(SlowQueryLog.class).getSlowest());
+    }
+
+    /**
+     * The embedded database settings, each of which the arguments may override.
+     */
+    private static String[] withEmbeddedDatabase(String[] args) {
+        Map<String, String> properties = new LinkedHashMap<>(EMBEDDED);
+        List<String> others = new ArrayList<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (arg.startsWith("--") && equals > 2) properties.put(arg.substring(2, equals), arg.substring(equals + 1));
+            else others.add(arg);
+        }
+        properties.forEach((name, value) -> others.add("--" + name + "=" + value));
+        return others.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,31 @@
+package gr.aueb.cf.tourapp.loadtest;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The {@code loadtest.*} options, given as {@code --loadtest.bookings=2000000} arguments next to
+ * any application property. Weights of the mix are set per scenario, e.g.
+ * {@code --loadtest.mix.login=0}; unset ones keep their default weight.
+ */
+public record LoadTestSettings(@DefaultValue("10") int tours,
+                               @DefaultValue("1000") int guides,
+                               @DefaultValue("10000") int customers,
+                               @DefaultValue("1000000") int bookings,
+                               @DefaultValue("10000") int batchSize,
+                               @DefaultValue("Passw0rd!") String password,
+                               @DefaultValue("100") int users,
+                               @DefaultValue("PT30S") Duration warmup,
+                               @DefaultValue("PT2M") Duration duration,
+                               @DefaultValue("PT0S") Duration thinkTime,
+                               @DefaultValue("20") int pageSize,
+                               Map<Scenario, Integer> mix,
+                               @DefaultValue("build/reports/loadtest/report.json") Path report) {
+
+    public int weightOf(Scenario scenario) {
+        return mix == null ? scenario.getDefaultWeight() : mix.getOrDefault(scenario, scenario.getDefaultWeight());
+    }
+}
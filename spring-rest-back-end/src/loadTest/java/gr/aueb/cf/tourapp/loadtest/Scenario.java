@@ -0,0 +1,31 @@
+package gr.aueb.cf.tourapp.loadtest;
+
+import java.util.Locale;
+
+/**
+ * What a virtual user does in one step, with its default share of the traffic.
+ */
+public enum Scenario {
+    LOGIN(5),
+    SAVE_BOOKING(15),
+    CLAIM_BOOKING(10),
+    CUSTOMER_BOOKINGS(15),
+    BOOKINGS_PAGE(20),
+    BOOKINGS_FILTERED(15),
+    GUIDES_FILTERED(10),
+    CUSTOMERS_FILTERED(10);
+
+    private final int defaultWeight;
+
+    Scenario(int defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+
+    public int getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    public String getLabel() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
@@ -0,0 +1,72 @@
+package gr.aueb.cf.tourapp.loadtest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * What the scenarios need to know about the generated rows. Users are named {@code customer<i>},
+ * {@code guide<i>} and {@code admin}, all with the same password.
+ */
+public final class SeededData {
+
+    private final int customers;
+    private final int guides;
+    private final int days;
+    private final List<String> categories;
+    private final int lastnames;
+    private final long[] unassignedBookingIds;
+    private final AtomicInteger nextUnassigned = new AtomicInteger();
+
+    public SeededData(int customers, int guides, int days, List<String> categories, int lastnames,
+                      long[] unassignedBookingIds) {
+        this.customers = customers;
+        this.guides = guides;
+        this.days = days;
+        this.categories = List.copyOf(categories);
+        this.lastnames = lastnames;
+        this.unassignedBookingIds = unassignedBookingIds;
+    }
+
+    public int getCustomers() {
+        return customers;
+    }
+
+    public int getGuides() {
+        return guides;
+    }
+
+    /**
+     * The seeded bookings fall on the days after today up to this many; new ones go after them.
+     */
+    public int getDays() {
+        return days;
+    }
+
+    public List<String> getCategories() {
+        return categories;
+    }
+
+    public int getLastnames() {
+        return lastnames;
+    }
+
+    /**
+     * A seeded booking without a guide not handed out before, or -1 once all have been.
+     */
+    public long nextUnassignedBookingId() {
+        int next = nextUnassigned.getAndIncrement();
+        return next < unassignedBookingIds.length ? unassignedBookingIds[next] : -1;
+    }
+
+    public static String lastname(int index) {
+        return "Lastname" + index;
+    }
+
+    public static String customerVat(int index) {
+        return String.format("1%08d", index);
+    }
+
+    public static String guideVat(int index) {
+        return String.format("2%08d", index);
+    }
+}
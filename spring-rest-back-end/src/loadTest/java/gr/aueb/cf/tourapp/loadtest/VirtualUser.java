@@ -0,0 +1,211 @@
+package gr.aueb.cf.tourapp.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gr.aueb.cf.tourapp.dto.AuthenticationRequestDTO;
+import gr.aueb.cf.tourapp.dto.AuthenticationResponseDTO;
+import gr.aueb.cf.tourapp.dto.BookingInsertDTO;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.BooleanSupplier;
+
+/**
+ * One user of the API, sending a request at a time: it logs in as its own customer, as a guide and
+ * as the admin, then runs scenarios picked by weight until told to stop. Each virtual user books for
+ * a customer of its own, on days after the seeded ones, so that new bookings do not collide.
+ */
+public class VirtualUser implements Runnable {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final int index;
+    private final HttpClient client;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final SeededData data;
+    private final LoadTestSettings settings;
+    private final LatencyReport report;
+    private final Scenario[] scenarios;
+    private final int[] cumulativeWeights;
+    private final BooleanSupplier running;
+    private final SplittableRandom random;
+
+    private String customerToken;
+    private String guideToken;
+    private String adminToken;
+    private int bookedDays;
+
+    public VirtualUser(int index, HttpClient client, String baseUrl, ObjectMapper objectMapper, SeededData data,
+                       LoadTestSettings settings, LatencyReport report, BooleanSupplier running) {
+        this.index = index;
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.data = data;
+        this.settings = settings;
+        this.report = report;
+        this.running = running;
+        this.random = new SplittableRandom(index);
+
+        this.scenarios = Scenario.values();
+        this.cumulativeWeights = new int[scenarios.length];
+        int total = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            total += Math.max(0, settings.weightOf(scenarios[i]));
+            cumulativeWeights[i] = total;
+        }
+        if (total == 0) throw new IllegalArgumentException("The weights of loadtest.mix add up to 0");
+    }
+
+    @Override
+    public void run() {
+        try {
+            for (String username : List.of(customerUsername(), guideUsername(), "admin")) {
+                // Logins beyond the hashing queue are turned away with a 503 until it drains
+                while (!login(username)) {
+                    if (!running.getAsBoolean()) return;
+                    Thread.sleep(100);
+                }
+            }
+
+            while (running.getAsBoolean()) {
+                step(pick());
+                if (!settings.thinkTime().isZero()) Thread.sleep(settings.thinkTime().toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Scenario pick() {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = 0;
+        while (cumulativeWeights[i] <= value) i++;
+        return scenarios[i];
+    }
+
+    private void step(Scenario scenario) {
+        switch (scenario) {
+            // Logging in again replaces the session of one of the roles
+            case LOGIN -> login(random.nextBoolean() ? customerUsername() : guideUsername());
+            case SAVE_BOOKING -> {
+                String category = randomCategory();
+                LocalDate date = LocalDate.now().plusDays(data.getDays() + ++bookedDays);
+                send(scenario, post("/api/customers/bookings/save", customerToken, new BookingInsertDTO(date, category)));
+            }
+            case CLAIM_BOOKING -> {
+                long bookingId = data.nextUnassignedBookingId();
+                if (bookingId < 0) {
+                    step(Scenario.BOOKINGS_PAGE);
+                    return;
+                }
+                send(scenario, authorized("/api/guides/bookings/save/" + bookingId, guideToken)
+                        .PUT(HttpRequest.BodyPublishers.noBody()).build());
+            }
+            case CUSTOMER_BOOKINGS -> send(scenario, authorized("/api/customers/bookings", customerToken).GET().build());
+            case BOOKINGS_PAGE -> send(scenario, authorized("/api/bookings/paginated?page=" + random.nextInt(100)
+                    + "&size=" + settings.pageSize() + "&count=CACHED", guideToken).GET().build());
+            case BOOKINGS_FILTERED -> send(scenario, post("/api/bookings/filtered/paginated", adminToken, bookingFilters()));
+            case GUIDES_FILTERED -> send(scenario, post("/api/guides/filtered/paginated", guideToken, Map.of(
+                    "tourCategory", randomCategory(),
+                    "isActive", true,
+                    "page", random.nextInt(5),
+                    "pageSize", settings.pageSize())));
+            // The customer specifications only skip a blank uuid or VAT when given
+            case CUSTOMERS_FILTERED -> send(scenario, post("/api/customers/filtered/paginated", customerToken, Map.of(
+                    "uuid", "",
+                    "userVat", SeededData.customerVat(random.nextInt(data.getCustomers())),
+                    "isActive", true,
+                    "pageSize", settings.pageSize())));
+        }
+    }
+
+    // The filter classes derive paging objects in their getters, so they are sent as plain maps
+    private Map<String, Object> bookingFilters() {
+        return switch (random.nextInt(3)) {
+            case 0 -> Map.of("tourCategory", randomCategory(),
+                    "bookingDate", LocalDate.now().plusDays(1 + random.nextInt(data.getDays())).toString(),
+                    "pageSize", settings.pageSize(), "countMode", "CACHED");
+            case 1 -> Map.of("customerLastname", SeededData.lastname(random.nextInt(data.getLastnames())),
+                    "customerIsActive", true, "pageSize", settings.pageSize(), "countMode", "CACHED");
+            default -> Map.of("tourCategory", randomCategory(), "price", 20.0 + 5 * random.nextInt(data.getCategories().size()),
+                    "sortBy", "bookingDate", "pageSize", settings.pageSize(), "countMode", "CACHED");
+        };
+    }
+
+    private boolean login(String username) {
+        HttpResponse<byte[]> response = send(Scenario.LOGIN, HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/authenticate"))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json(new AuthenticationRequestDTO(username, settings.password()))))
+                .build());
+        if (response == null || response.statusCode() != 200) return false;
+
+        try {
+            String token = objectMapper.readValue(response.body(), AuthenticationResponseDTO.class).getToken();
+            if (username.equals(customerUsername())) customerToken = token;
+            else if (username.equals(guideUsername())) guideToken = token;
+            else adminToken = token;
+            return true;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected response to the login of " + username, e);
+        }
+    }
+
+    private HttpResponse<byte[]> send(Scenario scenario, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            report.record(scenario, System.nanoTime() - start, response.statusCode());
+            return response;
+        } catch (IOException e) {
+            report.record(scenario, System.nanoTime() - start, 0);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private HttpRequest post(String path, String token, Object body) {
+        return authorized(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json(body)))
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private byte[] json(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private String randomCategory() {
+        return data.getCategories().get(random.nextInt(data.getCategories().size()));
+    }
+
+    private String customerUsername() {
+        return "customer" + index % data.getCustomers();
+    }
+
+    private String guideUsername() {
+        return "guide" + index % data.getGuides();
+    }
+}
@@ -3,8 +3,10 @@ package gr.aueb.cf.tourapp.authentication;
 import gr.aueb.cf.tourapp.core.exceptions.AppObjectNotAuthorizedException;
 import gr.aueb.cf.tourapp.dto.AuthenticationRequestDTO;
 import gr.aueb.cf.tourapp.dto.AuthenticationResponseDTO;
+import gr.aueb.cf.tourapp.dto.RefreshTokenRequestDTO;
 import gr.aueb.cf.tourapp.model.User;
 import gr.aueb.cf.tourapp.repository.UserRepository;
+import gr.aueb.cf.tourapp.repository.projections.UserIdentity;
 import gr.aueb.cf.tourapp.security.JwtService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -19,6 +21,8 @@ public class AuthenticationService {
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final UserRepository userRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final UserIdentityService userIdentityService;
 
     public AuthenticationResponseDTO authenticate(AuthenticationRequestDTO dto)
             throws AppObjectNotAuthorizedException {
@@ -30,6 +34,27 @@ public class AuthenticationService {
                 new AppObjectNotAuthorizedException("User", "User not authorized"));
 
         String token = jwtService.generateToken(authentication.getName(), user.getRole().name());
-        return new AuthenticationResponseDTO(user.getFirstname(), user.getLastname(), token);
+        String refreshToken = refreshTokenService.issue(user.getUsername(), user.getFirstname(), user.getLastname());
+        return new AuthenticationResponseDTO(user.getFirstname(), user.getLastname(), token, refreshToken);
+    }
+
+    public AuthenticationResponseDTO refresh(RefreshTokenRequestDTO dto)
+            throws AppObjectNotAuthorizedException {
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(dto.getRefreshToken());
+        RefreshToken previous = rotation.previous();
+
+        UserIdentity identity = userIdentityService.resolve(previous.username());
+        if (!Boolean.TRUE.equals(identity.isActive())) {
+            refreshTokenService.revokeAll(previous.username());
+            throw new AppObjectNotAuthorizedException("User", "User not authorized");
+        }
+
+        String token = jwtService.generateToken(previous.username(), identity.role().name());
+        return new AuthenticationResponseDTO(previous.firstname(), previous.lastname(), token, rotation.refreshToken());
+    }
+
+    public void logout(RefreshTokenRequestDTO dto) {
+        refreshTokenService.revoke(dto.getRefreshToken());
     }
 }
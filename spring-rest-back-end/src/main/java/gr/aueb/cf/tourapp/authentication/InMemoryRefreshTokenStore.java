@@ -0,0 +1,95 @@
+package gr.aueb.cf.tourapp.authentication;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single node store. Used tokens stay until they expire so that a replay is recognised. The
+ * token hashes of each family and the families of each user are indexed, so revoking a login or
+ * a user touches only their own tokens. Both indexes are changed only inside {@code compute} on
+ * the user's entry, which serialises the writes of one user.
+ */
+@Component
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private static final int PURGE_EVERY = 1024;
+
+    private final Map<ByteBuffer, RefreshToken> tokens = new ConcurrentHashMap<>();
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> userFamilies = new ConcurrentHashMap<>();
+    private final AtomicInteger saves = new AtomicInteger();
+
+    @Override
+    public void save(ByteBuffer hash, RefreshToken token) {
+        userFamilies.compute(token.username(), (username, userFamilyIds) -> {
+            Set<String> updated = userFamilyIds == null ? new HashSet<>() : userFamilyIds;
+            updated.add(token.family());
+            families.computeIfAbsent(token.family(), id -> new Family(username, new HashSet<>())).hashes().add(hash);
+            tokens.put(hash, token);
+            return updated;
+        });
+
+        if (saves.incrementAndGet() % PURGE_EVERY == 0) {
+            long now = System.currentTimeMillis();
+            tokens.forEach((key, stored) -> {
+                if (stored.isExpired(now)) removeExpired(key, stored);
+            });
+        }
+    }
+
+    @Override
+    public Optional<RefreshToken> consume(ByteBuffer hash) {
+        RefreshToken[] previous = new RefreshToken[1];
+        tokens.computeIfPresent(hash, (key, token) -> {
+            previous[0] = token;
+            return token.used() ? token : token.markUsed();
+        });
+        return Optional.ofNullable(previous[0]);
+    }
+
+    @Override
+    public void removeFamily(String family) {
+        Family removed = families.get(family);
+        if (removed == null) return;
+        userFamilies.computeIfPresent(removed.username(), (username, userFamilyIds) -> {
+            removeTokens(family);
+            userFamilyIds.remove(family);
+            return userFamilyIds.isEmpty() ? null : userFamilyIds;
+        });
+    }
+
+    @Override
+    public void removeUser(String username) {
+        userFamilies.computeIfPresent(username, (key, userFamilyIds) -> {
+            userFamilyIds.forEach(this::removeTokens);
+            return null;
+        });
+    }
+
+    private void removeExpired(ByteBuffer hash, RefreshToken token) {
+        userFamilies.computeIfPresent(token.username(), (username, userFamilyIds) -> {
+            tokens.remove(hash);
+            Family family = families.get(token.family());
+            if (family != null && family.hashes().remove(hash) && family.hashes().isEmpty()) {
+                families.remove(token.family());
+                userFamilyIds.remove(token.family());
+            }
+            return userFamilyIds.isEmpty() ? null : userFamilyIds;
+        });
+    }
+
+    private void removeTokens(String family) {
+        Family removed = families.remove(family);
+        if (removed != null) removed.hashes().forEach(tokens::remove);
+    }
+
+    private record Family(String username, Set<ByteBuffer> hashes) {
+    }
+}
@@ -1,16 +1,20 @@
 package gr.aueb.cf.tourapp.authentication;
 
 import gr.aueb.cf.tourapp.security.JwtService;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -19,14 +23,32 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+    private final boolean stateless;
+    private final boolean revocationCheck;
+    private final MeterRegistry meterRegistry;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsService userDetailsService,
+                                   TokenRevocationService tokenRevocationService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.jwt.stateless:false}") boolean stateless,
+                                   @Value("${app.jwt.revocation.enabled:true}") boolean revocationCheck) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.meterRegistry = meterRegistry;
+        this.stateless = stateless;
+        this.revocationCheck = revocationCheck;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -35,6 +57,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String authHeader = request.getHeader("Authorization");
         String jwt;
+        Claims claims;
         String username;
         String userRole;
 
@@ -45,13 +68,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            username = jwtService.extractSubject(jwt);
-            userRole = jwtService.getStringClaim(jwt, "role");
+            claims = verify(jwt);
+            username = claims.getSubject();
+            userRole = claims.get("role", String.class);
 
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            if (stateless && username != null && userRole != null
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // The signature and expiry were verified while parsing, so the claims are trusted as they are
+                if (revocationCheck && tokenRevocationService.isRevoked(username, claims.getIssuedAt())) {
+                    LOGGER.warn("Revoked token for user " + username + " on " + request.getRequestURI());
+                } else {
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            username, null, List.of(new SimpleGrantedAuthority(userRole)));
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                }
+            } else if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (jwtService.isTokenValid(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -77,4 +112,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    // Includes hits of the verified-token cache, so the histogram shows what a request actually pays
+    private Claims verify(String jwt) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "invalid";
+        try {
+            Claims claims = jwtService.verify(jwt);
+            outcome = "valid";
+            return claims;
+        } catch (ExpiredJwtException e) {
+            outcome = "expired";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("app.jwt.verification")
+                    .description("Time to verify the bearer token of a request")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
 }
@@ -0,0 +1,17 @@
+package gr.aueb.cf.tourapp.authentication;
+
+/**
+ * What the store keeps for an issued refresh token; the token itself is only known to the client.
+ * Tokens of one login share a family, so replaying a rotated token can revoke all its successors.
+ */
+public record RefreshToken(String username, String family, String firstname, String lastname,
+                           long expiresAt, boolean used) {
+
+    public RefreshToken markUsed() {
+        return new RefreshToken(username, family, firstname, lastname, expiresAt, true);
+    }
+
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+}
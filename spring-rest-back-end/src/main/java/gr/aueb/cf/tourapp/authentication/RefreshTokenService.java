@@ -0,0 +1,89 @@
+package gr.aueb.cf.tourapp.authentication;
+
+import gr.aueb.cf.tourapp.core.exceptions.AppObjectNotAuthorizedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque, single-use refresh tokens. Every refresh consumes the presented token and issues its
+ * successor; presenting a consumed token again revokes the whole family.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenStore store;
+    private final long ttlMillis;
+
+    public RefreshTokenService(RefreshTokenStore store,
+                               @Value("${app.jwt.refresh.ttl:P14D}") Duration ttl) {
+        this.store = store;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    public String issue(String username, String firstname, String lastname) {
+        return issue(username, UUID.randomUUID().toString(), firstname, lastname);
+    }
+
+    public Rotation rotate(String refreshToken) throws AppObjectNotAuthorizedException {
+        if (refreshToken == null || refreshToken.isBlank()) throw invalid();
+
+        RefreshToken token = store.consume(hash(refreshToken)).orElseThrow(RefreshTokenService::invalid);
+        if (token.used()) {
+            LOGGER.warn("Refresh token of user {} was reused, revoking its family", token.username());
+            store.removeFamily(token.family());
+            throw invalid();
+        }
+        if (token.isExpired(System.currentTimeMillis())) throw invalid();
+
+        String next = issue(token.username(), token.family(), token.firstname(), token.lastname());
+        return new Rotation(token, next);
+    }
+
+    public void revoke(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) return;
+        store.consume(hash(refreshToken)).ifPresent(token -> store.removeFamily(token.family()));
+    }
+
+    public void revokeAll(String username) {
+        store.removeUser(username);
+    }
+
+    private String issue(String username, String family, String firstname, String lastname) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        store.save(hash(refreshToken), new RefreshToken(username, family, firstname, lastname,
+                System.currentTimeMillis() + ttlMillis, false));
+        return refreshToken;
+    }
+
+    private static ByteBuffer hash(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static AppObjectNotAuthorizedException invalid() {
+        return new AppObjectNotAuthorizedException("RefreshToken", "Refresh token is invalid or expired");
+    }
+
+    public record Rotation(RefreshToken previous, String refreshToken) {
+    }
+}
@@ -0,0 +1,22 @@
+package gr.aueb.cf.tourapp.authentication;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * Refresh tokens indexed by the SHA-256 of the token.
+ */
+public interface RefreshTokenStore {
+
+    void save(ByteBuffer hash, RefreshToken token);
+
+    /**
+     * Atomically marks the token as used and returns it as it was before, so exactly one caller
+     * sees it unused.
+     */
+    Optional<RefreshToken> consume(ByteBuffer hash);
+
+    void removeFamily(String family);
+
+    void removeUser(String username);
+}
@@ -0,0 +1,48 @@
+package gr.aueb.cf.tourapp.authentication;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory record of users whose tokens must stop working before they expire, e.g. after
+ * deactivation or a role change. Entries only need to outlive the tokens issued before them.
+ *
+ * <p>Tokens carry their issue time in whole seconds, so revocations are kept to the second too:
+ * a token issued in the same second as the revocation, e.g. on the login right after a
+ * reactivation, stays valid.
+ */
+@Service
+public class TokenRevocationService {
+
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Map<String, Long> revokedAt = new ConcurrentHashMap<>();
+
+    public TokenRevocationService(@Value("${app.jwt.revocation.ttl:PT1H}") Duration ttl, ObjectProvider<Clock> clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock.getIfAvailable(Clock::systemUTC);
+    }
+
+    public void revoke(String username) {
+        revokedAt.put(username, clock.instant().truncatedTo(ChronoUnit.SECONDS).toEpochMilli());
+    }
+
+    public boolean isRevoked(String username, Date issuedAt) {
+        Long revoked = revokedAt.get(username);
+        if (revoked == null) return false;
+
+        if (revoked + ttlMillis < clock.millis()) {
+            revokedAt.remove(username, revoked);
+            return false;
+        }
+        return issuedAt == null || issuedAt.getTime() < revoked;
+    }
+}
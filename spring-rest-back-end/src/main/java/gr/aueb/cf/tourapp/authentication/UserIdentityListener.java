@@ -0,0 +1,36 @@
+package gr.aueb.cf.tourapp.authentication;
+
+import gr.aueb.cf.tourapp.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class UserIdentityListener {
+
+    private final ObjectProvider<UserIdentityService> userIdentityService;
+    private final ObjectProvider<TokenRevocationService> tokenRevocationService;
+    private final ObjectProvider<RefreshTokenService> refreshTokenService;
+
+    @PostUpdate
+    public void userUpdated(User user) {
+        userIdentityService.getObject().evict(user.getUsername());
+        if (!Boolean.TRUE.equals(user.getIsActive())) {
+            tokenRevocationService.ifAvailable(service -> service.revoke(user.getUsername()));
+            refreshTokenService.ifAvailable(service -> service.revokeAll(user.getUsername()));
+        } else if (user.isRoleChanged()) {
+            // The role is a claim of the access tokens; a refresh issues one with the new role
+            tokenRevocationService.ifAvailable(service -> service.revoke(user.getUsername()));
+        }
+    }
+
+    @PostRemove
+    public void userRemoved(User user) {
+        userIdentityService.getObject().evict(user.getUsername());
+        tokenRevocationService.ifAvailable(service -> service.revoke(user.getUsername()));
+        refreshTokenService.ifAvailable(service -> service.revokeAll(user.getUsername()));
+    }
+}
@@ -0,0 +1,94 @@
+package gr.aueb.cf.tourapp.authentication;
+
+import gr.aueb.cf.tourapp.core.exceptions.AppObjectNotFoundException;
+import gr.aueb.cf.tourapp.model.User;
+import gr.aueb.cf.tourapp.repository.UserRepository;
+import gr.aueb.cf.tourapp.repository.projections.UserIdentity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of username to the ids the booking endpoints need, so a request
+ * resolves its user at most once and usually not at all.
+ */
+@Service
+public class UserIdentityService {
+
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+    private final Map<String, CachedIdentity> identities;
+
+    public UserIdentityService(UserRepository userRepository,
+                               @Value("${app.identity-cache.max-size:10000}") int maxSize,
+                               @Value("${app.identity-cache.ttl:PT10M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttl.toMillis();
+        this.identities = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedIdentity> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public UserIdentity resolve(String username) throws AppObjectNotFoundException {
+        long now = System.currentTimeMillis();
+        synchronized (identities) {
+            CachedIdentity cached = identities.get(username);
+            if (cached != null && cached.expiresAt() > now) return cached.identity();
+        }
+
+        UserIdentity identity = userRepository.findIdentityByUsername(username).orElseThrow(() ->
+                new AppObjectNotFoundException("User", "User with username " + username + " was not found"));
+        put(identity);
+        return identity;
+    }
+
+    public void remember(User user) {
+        put(new UserIdentity(user.getId(), user.getUsername(), user.getRole(),
+                user.isCustomer() ? user.getCustomer().getId() : null,
+                user.isGuide() ? user.getGuide().getId() : null,
+                user.getIsActive()));
+    }
+
+    public void evict(String username) {
+        remove(username);
+
+        // A reader may re-cache the old row before the change commits, so evict again afterwards
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(username);
+                }
+            });
+        }
+    }
+
+    public void evictAll() {
+        synchronized (identities) {
+            identities.clear();
+        }
+    }
+
+    private void put(UserIdentity identity) {
+        synchronized (identities) {
+            identities.put(identity.username(), new CachedIdentity(identity, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    private void remove(String username) {
+        synchronized (identities) {
+            identities.remove(username);
+        }
+    }
+
+    private record CachedIdentity(UserIdentity identity, long expiresAt) {
+    }
+}
@@ -2,6 +2,7 @@ package gr.aueb.cf.tourapp.core;
 
 import gr.aueb.cf.tourapp.core.exceptions.*;
 import gr.aueb.cf.tourapp.dto.ResponseMessageDTO;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -47,6 +48,13 @@ public class ErrorHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(new ResponseMessageDTO(e.getCode(), e.getMessage()), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(AppServiceBusyException.class)
+    public ResponseEntity<ResponseMessageDTO> handleConstraintViolationException(AppServiceBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ResponseMessageDTO(e.getCode(), e.getMessage()));
+    }
+
     @ExceptionHandler(AppServerException.class)
     public ResponseEntity<ResponseMessageDTO> handleConstraintViolationException(AppServerException e) {
         return new ResponseEntity<>(new ResponseMessageDTO(e.getCode(), e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
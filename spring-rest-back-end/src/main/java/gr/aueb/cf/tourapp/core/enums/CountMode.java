@@ -0,0 +1,7 @@
+package gr.aueb.cf.tourapp.core.enums;
+
+public enum CountMode {
+    EXACT,
+    CACHED,
+    NONE
+}
@@ -0,0 +1,29 @@
+package gr.aueb.cf.tourapp.core.enums;
+
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * The format of an upload; JSON input may be one object per line or a single array.
+     */
+    public static ExportFormat forContentType(String contentType) {
+        return contentType != null && contentType.startsWith(CSV.contentType) ? CSV : NDJSON;
+    }
+}
@@ -0,0 +1,8 @@
+package gr.aueb.cf.tourapp.core.enums;
+
+public enum RegistrationStatus {
+    CREATED,
+    INVALID,
+    DUPLICATE,
+    FAILED
+}
@@ -0,0 +1,9 @@
+package gr.aueb.cf.tourapp.core.exceptions;
+
+public class AppServiceBusyException extends AppGenericException {
+    private static final String DEFAULT_CODE = "ServiceBusy";
+
+    public AppServiceBusyException(String code, String message) {
+        super(code + DEFAULT_CODE, message);
+    }
+}
@@ -28,6 +28,9 @@ public class BookingFilters extends GenericFilters {
     @Nullable
     private Long customerId;
 
+    @Nullable
+    private String customerLastname;
+
     @Nullable
     private Boolean customerIsActive;
 }
@@ -0,0 +1,60 @@
+package gr.aueb.cf.tourapp.core.filters;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived totals of filtered searches, so that flipping through the pages of the same search
+ * counts once. Totals may lag behind by up to the TTL; local writes evict their entity's entries.
+ */
+@Component
+public class CountCache {
+
+    private final long ttlMillis;
+    private final Map<String, CachedCount> counts;
+
+    public CountCache(@Value("${app.count-cache.max-size:1000}") int maxSize,
+                      @Value("${app.count-cache.ttl:PT30S}") Duration ttl) {
+        this.ttlMillis = ttl.toMillis();
+        this.counts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedCount> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public long count(Class<?> domainClass, GenericFilters filters, LongSupplier counter) {
+        String key = keyOf(domainClass, filters);
+        long now = System.currentTimeMillis();
+        synchronized (counts) {
+            CachedCount cached = counts.get(key);
+            if (cached != null && cached.expiresAt() > now) return cached.total();
+        }
+
+        long total = counter.getAsLong();
+        synchronized (counts) {
+            counts.put(key, new CachedCount(total, now + ttlMillis));
+        }
+        return total;
+    }
+
+    public void evict(Class<?> domainClass) {
+        String prefix = domainClass.getSimpleName() + ":";
+        synchronized (counts) {
+            counts.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    private static String keyOf(Class<?> domainClass, GenericFilters filters) {
+        return domainClass.getSimpleName() + ":" + (filters == null ? "" : filters.getCountKey());
+    }
+
+    private record CachedCount(long total, long expiresAt) {
+    }
+}
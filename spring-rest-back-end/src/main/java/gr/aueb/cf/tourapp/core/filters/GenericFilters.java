@@ -1,15 +1,22 @@
 package gr.aueb.cf.tourapp.core.filters;
 
+import gr.aueb.cf.tourapp.core.enums.CountMode;
+import gr.aueb.cf.tourapp.core.exceptions.AppObjectInvalidArgumentException;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
+import java.util.Map;
+import java.util.function.Function;
+
 @Setter
 @NoArgsConstructor
 public abstract class GenericFilters {
     private static final int DEFAULT_PAGE_SIZE = 10;
+    public static final int MAX_PAGE_SIZE = 100;
     private static final String DEFAULT_SORT_COLUMN = "id";
     private static final Sort.Direction DEFAULT_DIRECTION = Sort.Direction.ASC;
 
@@ -18,12 +25,18 @@ public abstract class GenericFilters {
     private Sort.Direction sortDirection;
     private String sortBy;
 
+    // Empty for the first keyset page, then the nextCursor of the previous one; null means offset paging
+    private String cursor;
+
+    // Offset pages only: EXACT counts every time, CACHED reuses a recent total, NONE only reports hasNext
+    private CountMode countMode;
+
     public int getPage() {
         return Math.max(page, 0);
     }
 
     public int getPageSize() {
-        return pageSize < 0 ? DEFAULT_PAGE_SIZE : pageSize;
+        return pageSize <= 0 ? DEFAULT_PAGE_SIZE : Math.min(pageSize, MAX_PAGE_SIZE);
     }
 
     public Sort.Direction getSortDirection() {
@@ -41,4 +54,62 @@ public abstract class GenericFilters {
     public Pageable getPageable() {
         return PageRequest.of(getPage(), getPageSize(), getSort());
     }
+
+    public CountMode getCountMode() {
+        return countMode == null ? CountMode.EXACT : countMode;
+    }
+
+    /**
+     * Identifies the filtered result set regardless of page and sort. The subclasses' toString
+     * lists exactly their filter fields.
+     */
+    public String getCountKey() {
+        return toString();
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public boolean isKeyset() {
+        return cursor != null;
+    }
+
+    /**
+     * The decoded cursor, or null on the first keyset page.
+     */
+    public KeysetCursor getKeysetCursor() throws AppObjectInvalidArgumentException {
+        if (cursor == null || cursor.isBlank()) return null;
+
+        KeysetCursor keysetCursor = KeysetCursor.decode(cursor);
+        if (!keysetCursor.sortBy().equals(getSortBy()) || keysetCursor.direction() != getSortDirection()) {
+            throw new AppObjectInvalidArgumentException("Cursor", "The page cursor belongs to a different sort order");
+        }
+        return keysetCursor;
+    }
+
+    /**
+     * The sort with the id as tie-breaker, so that every row has a unique position.
+     */
+    public Sort getKeysetSort() {
+        Sort sort = getSort();
+        return getSortBy().equals(DEFAULT_SORT_COLUMN) ? sort : sort.and(Sort.by(getSortDirection(), DEFAULT_SORT_COLUMN));
+    }
+
+    /**
+     * One row more than the page, to tell whether another page follows.
+     */
+    public Limit getKeysetLimit() {
+        return Limit.of(getPageSize() + 1);
+    }
+
+    public <P> Function<P, Object> getKeysetSortKey(Map<String, Function<P, Object>> sortKeys)
+            throws AppObjectInvalidArgumentException {
+        Function<P, Object> sortKey = sortKeys.get(getSortBy());
+        if (sortKey == null) {
+            throw new AppObjectInvalidArgumentException("Sort", "Cursor paging cannot sort by " + getSortBy()
+                    + ", use one of " + sortKeys.keySet());
+        }
+        return sortKey;
+    }
 }
@@ -0,0 +1,41 @@
+package gr.aueb.cf.tourapp.core.filters;
+
+import gr.aueb.cf.tourapp.core.exceptions.AppObjectInvalidArgumentException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a keyset page: its sort key value and id, plus the sort they
+ * belong to. Clients only see the encoded form and send it back unchanged.
+ */
+public record KeysetCursor(String sortBy, Sort.Direction direction, String value, long id) {
+
+    private static final String VERSION = "1";
+    private static final String NULL_VALUE = "~";
+    private static final String VALUE_PREFIX = "=";
+
+    public String encode() {
+        String raw = String.join("\n", VERSION, sortBy, direction.name(), String.valueOf(id),
+                value == null ? NULL_VALUE : VALUE_PREFIX + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) throws AppObjectInvalidArgumentException {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\n", 5);
+            if (parts.length != 5 || !VERSION.equals(parts[0])) throw invalid();
+
+            if (!parts[4].equals(NULL_VALUE) && !parts[4].startsWith(VALUE_PREFIX)) throw invalid();
+            String value = parts[4].equals(NULL_VALUE) ? null : parts[4].substring(VALUE_PREFIX.length());
+            return new KeysetCursor(parts[1], Sort.Direction.valueOf(parts[2]), value, Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+    }
+
+    private static AppObjectInvalidArgumentException invalid() {
+        return new AppObjectInvalidArgumentException("Cursor", "The page cursor is not valid");
+    }
+}
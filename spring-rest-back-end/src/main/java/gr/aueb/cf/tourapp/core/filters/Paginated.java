@@ -3,8 +3,12 @@ package gr.aueb.cf.tourapp.core.filters;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
 
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 
 @Getter
 @Setter
@@ -16,6 +20,9 @@ public class Paginated<T> {
     int numberOfElements;
     int currentPage;
     int pageSize;
+    boolean hasNext;
+    // Only in keyset mode, where the totals and the page number are not computed and stay -1
+    String nextCursor;
 
     public Paginated(Page<T> page) {
         this.data = page.getContent();
@@ -24,5 +31,63 @@ public class Paginated<T> {
         this.numberOfElements = page.getNumberOfElements();
         this.currentPage = page.getNumber();
         this.pageSize = page.getSize();
+        this.hasNext = page.hasNext();
+    }
+
+    // Count-free: the totals stay -1
+    public Paginated(Slice<T> slice) {
+        this.data = slice.getContent();
+        this.totalElements = -1;
+        this.totalPages = -1;
+        this.numberOfElements = slice.getNumberOfElements();
+        this.currentPage = slice.getNumber();
+        this.pageSize = slice.getSize();
+        this.hasNext = slice.hasNext();
+    }
+
+    /**
+     * A page from a slice, with the total from {@code total} when it is given and needed at all.
+     */
+    public static <T> Paginated<T> of(Slice<T> slice, LongSupplier total) {
+        if (total == null) return new Paginated<>(slice);
+        return new Paginated<>(PageableExecutionUtils.getPage(slice.getContent(), slice.getPageable(), total));
+    }
+
+    private Paginated(List<T> data, int pageSize, String nextCursor) {
+        this.data = data;
+        this.totalElements = -1;
+        this.totalPages = -1;
+        this.numberOfElements = data.size();
+        this.currentPage = -1;
+        this.pageSize = pageSize;
+        this.hasNext = nextCursor != null;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * A keyset page from rows fetched with {@link GenericFilters#getKeysetLimit()}; the extra row,
+     * if present, only signals that a next page exists.
+     */
+    public static <T> Paginated<T> ofKeyset(List<T> rows, GenericFilters filters,
+                                            Function<T, Object> sortKey, Function<T, Long> id) {
+        int pageSize = filters.getPageSize();
+        if (rows.size() <= pageSize) return new Paginated<>(rows, pageSize, null);
+
+        List<T> data = rows.subList(0, pageSize);
+        T last = data.get(pageSize - 1);
+        Object value = sortKey.apply(last);
+        String nextCursor = new KeysetCursor(filters.getSortBy(), filters.getSortDirection(),
+                value == null ? null : value.toString(), id.apply(last)).encode();
+        return new Paginated<>(data, pageSize, nextCursor);
+    }
+
+    public <R> Paginated<R> map(Function<T, R> mapper) {
+        Paginated<R> mapped = new Paginated<>(data.stream().map(mapper).toList(), pageSize, nextCursor);
+        mapped.totalElements = totalElements;
+        mapped.totalPages = totalPages;
+        mapped.numberOfElements = numberOfElements;
+        mapped.currentPage = currentPage;
+        mapped.hasNext = hasNext;
+        return mapped;
     }
 }
@@ -2,9 +2,12 @@ package gr.aueb.cf.tourapp.core.specifications;
 
 import gr.aueb.cf.tourapp.model.*;
 import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
+import java.util.Collection;
 
 
 public class BookingSpecification {
@@ -20,6 +23,10 @@ public class BookingSpecification {
         });
     }
 
+    public static Specification<Booking> bookingIdIn(Collection<Long> ids) {
+        return ((root, query, criteriaBuilder) -> root.get("id").in(ids));
+    }
+
     public static Specification<Booking> bookingDateIs(LocalDate date) {
         return ((root, query, criteriaBuilder) -> {
             if (date == null) return criteriaBuilder.isTrue(criteriaBuilder.literal(true));
@@ -36,40 +43,56 @@ public class BookingSpecification {
     public static Specification<Booking> bookingPriceLessThan(Double price) {
         return ((root, query, criteriaBuilder) -> {
             if (price == null || price == 0) return criteriaBuilder.isTrue(criteriaBuilder.literal(true));
-            return criteriaBuilder.lessThan(root.get("price"), price);
+            Subquery<Long> tourIds = query.subquery(Long.class);
+            Root<Tour> tour = tourIds.from(Tour.class);
+            tourIds.select(tour.get("id")).where(criteriaBuilder.lessThan(tour.get("price"), price));
+            return root.get("tour").get("id").in(tourIds);
         });
     }
 
     public static Specification<Booking> bookingTourCategoryIs(String category) {
         return ((root, query, criteriaBuilder) -> {
             if (category == null || category.isEmpty()) return criteriaBuilder.isTrue(criteriaBuilder.literal(true));
-            Join<Booking, Tour> tour = root.join("tour");
-            return criteriaBuilder.equal(tour.get("category"), category);
+            // A subquery on the foreign key rather than a join, so the database can start from the matching tours
+            Subquery<Long> tourIds = query.subquery(Long.class);
+            Root<Tour> tour = tourIds.from(Tour.class);
+            tourIds.select(tour.get("id")).where(criteriaBuilder.equal(tour.get("category"), category));
+            return root.get("tour").get("id").in(tourIds);
         });
     }
 
     public static Specification<Booking> bookingCustomerIdIs(Long id) {
         return ((root, query, criteriaBuilder) -> {
-            if (id == null || id == 0) criteriaBuilder.isTrue(criteriaBuilder.literal(true));
-            Join<Booking, Customer> customer = root.join("customer");
-            return criteriaBuilder.equal(customer.get("id"), id);
+            if (id == null || id == 0) return criteriaBuilder.isTrue(criteriaBuilder.literal(true));
+            // Compares the foreign key column directly, so the spec also works in exists and delete queries
+            return criteriaBuilder.equal(root.get("customer").get("id"), id);
         });
     }
 
     public static Specification<Booking> bookingCustomerLastnameIs(String lastname) {
         return ((root, query, criteriaBuilder) -> {
-            if (lastname == null || lastname.isEmpty()) criteriaBuilder.isTrue(criteriaBuilder.literal(true));
-            Join<Booking, Customer> customer = root.join("customer");
+            if (lastname == null || lastname.isEmpty()) return criteriaBuilder.isTrue(criteriaBuilder.literal(true));
+            Subquery<Long> customerIds = query.subquery(Long.class);
+            Root<Customer> customer = customerIds.from(Customer.class);
             Join<Customer, User> user = customer.join("user");
-            return criteriaBuilder.equal(user.get("lastname"), lastname);
+            customerIds.select(customer.get("id")).where(criteriaBuilder.equal(user.get("lastname"), lastname));
+            return root.get("customer").get("id").in(customerIds);
+        });
+    }
+
+    public static Specification<Booking> bookingCustomerIsActive(Boolean isActive) {
+        return ((root, query, criteriaBuilder) -> {
+            if (isActive == null) return criteriaBuilder.isTrue(criteriaBuilder.literal(true));
+            // Too unselective to drive the query, so only checked on the rows the other filters found
+            Join<Booking, Customer> customer = root.join("customer");
+            return criteriaBuilder.equal(customer.get("isActive"), isActive);
         });
     }
 
     public static Specification<Booking> bookingGuideIdIs(Long id) {
         return ((root, query, criteriaBuilder) -> {
-            if (id == null || id == 0) criteriaBuilder.isTrue(criteriaBuilder.literal(true));
-            Join<Booking, Guide> guide = root.join("guide");
-            return criteriaBuilder.equal(guide.get("id"), id);
+            if (id == null || id == 0) return criteriaBuilder.isTrue(criteriaBuilder.literal(true));
+            return criteriaBuilder.equal(root.get("guide").get("id"), id);
         });
     }
 
@@ -0,0 +1,89 @@
+package gr.aueb.cf.tourapp.core.specifications;
+
+import gr.aueb.cf.tourapp.core.exceptions.AppObjectInvalidArgumentException;
+import gr.aueb.cf.tourapp.core.filters.KeysetCursor;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class KeysetSpecification {
+
+    private KeysetSpecification() {
+
+    }
+
+    /**
+     * Rows strictly after the cursor in {@code sortBy, id} order. Nulls sort first ascending and
+     * last descending, as in MySQL.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T> Specification<T> after(KeysetCursor cursor) {
+        return ((root, query, criteriaBuilder) -> {
+            if (cursor == null) return criteriaBuilder.isTrue(criteriaBuilder.literal(true));
+
+            Path<Long> id = root.get("id");
+            boolean ascending = cursor.direction() == Sort.Direction.ASC;
+            Predicate idAfter = ascending ? criteriaBuilder.greaterThan(id, cursor.id()) : criteriaBuilder.lessThan(id, cursor.id());
+            if (cursor.sortBy().equals("id")) return idAfter;
+
+            Path key = path(root, cursor.sortBy());
+            if (cursor.value() == null) {
+                Predicate sameKey = criteriaBuilder.and(criteriaBuilder.isNull(key), idAfter);
+                return ascending ? criteriaBuilder.or(sameKey, criteriaBuilder.isNotNull(key)) : sameKey;
+            }
+
+            Comparable value = convert(cursor.value(), key.getJavaType());
+            Predicate keyAfter = ascending ? criteriaBuilder.greaterThan(key, value) : criteriaBuilder.lessThan(key, value);
+            Predicate sameKey = criteriaBuilder.and(criteriaBuilder.equal(key, value), idAfter);
+            return ascending
+                    ? criteriaBuilder.or(keyAfter, sameKey)
+                    : criteriaBuilder.or(keyAfter, sameKey, criteriaBuilder.isNull(key));
+        });
+    }
+
+    /**
+     * Nested keys such as {@code tour.category} go through LEFT joins, reusing the ones the select
+     * and the ordering already made, so rows without the association stay on the pages.
+     */
+    private static Path<?> path(Root<?> root, String property) {
+        String[] parts = property.split("\\.");
+        From<?, ?> from = root;
+        for (int i = 0; i < parts.length - 1; i++) {
+            from = leftJoin(from, parts[i]);
+        }
+        return from.get(parts[parts.length - 1]);
+    }
+
+    private static From<?, ?> leftJoin(From<?, ?> from, String attribute) {
+        for (Join<?, ?> join : from.getJoins()) {
+            if (join.getJoinType() == JoinType.LEFT && join.getAttribute().getName().equals(attribute)) return join;
+        }
+        return from.join(attribute, JoinType.LEFT);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparable<?> convert(String value, Class<?> type) {
+        try {
+            if (type == String.class) return value;
+            if (type == Long.class || type == long.class) return Long.valueOf(value);
+            if (type == Integer.class || type == int.class) return Integer.valueOf(value);
+            if (type == Double.class || type == double.class) return Double.valueOf(value);
+            if (type == Boolean.class || type == boolean.class) return Boolean.valueOf(value);
+            if (type == LocalDate.class) return LocalDate.parse(value);
+            if (type == LocalDateTime.class) return LocalDateTime.parse(value);
+            if (type.isEnum()) return Enum.valueOf((Class<Enum>) type, value);
+        } catch (RuntimeException e) {
+            throw new AppObjectInvalidArgumentException("Cursor", "The page cursor is not valid");
+        }
+        throw new AppObjectInvalidArgumentException("Sort", "Cursor paging cannot sort by a " + type.getSimpleName());
+    }
+}
@@ -0,0 +1,93 @@
+package gr.aueb.cf.tourapp.core.sql;
+
+import gr.aueb.cf.tourapp.dto.SlowQueryDTO;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * The last statements that ran longer than the threshold, in a fixed-size ring with their bind
+ * parameters, read back slowest first. Only the types of the parameters are kept, since the values
+ * include password hashes and vat numbers, unless {@code app.sql.slow-query.bind-values} is set
+ * while debugging.
+ */
+@Component
+public class SlowQueryLog {
+
+    private static final int MAX_PARAMETER_SETS = 10;
+    private static final int MAX_VALUE_LENGTH = 100;
+
+    private final long thresholdMillis;
+    private final boolean bindValues;
+    private final SlowQueryDTO[] entries;
+    private int next;
+
+    public SlowQueryLog(@Value("${app.sql.slow-query.threshold:PT0.2S}") Duration threshold,
+                        @Value("${app.sql.slow-query.capacity:100}") int capacity,
+                        @Value("${app.sql.slow-query.bind-values:false}") boolean bindValues) {
+        this.thresholdMillis = threshold.toMillis();
+        this.bindValues = bindValues;
+        this.entries = new SlowQueryDTO[capacity];
+    }
+
+    void offer(ExecutionInfo execution, List<QueryInfo> queries, String request) {
+        if (execution.getElapsedTime() < thresholdMillis || entries.length == 0) return;
+
+        SlowQueryDTO entry = new SlowQueryDTO(
+                queries.stream().map(QueryInfo::getQuery).collect(Collectors.joining(";\n")),
+                queries.stream().flatMap(query -> query.getParametersList().stream())
+                        .limit(MAX_PARAMETER_SETS)
+                        .map(this::values)
+                        .toList(),
+                execution.getElapsedTime(),
+                execution.getBatchSize(),
+                request,
+                Instant.now());
+        synchronized (this) {
+            entries[next] = entry;
+            next = (next + 1) % entries.length;
+        }
+    }
+
+    public List<SlowQueryDTO> getSlowest() {
+        List<SlowQueryDTO> slowest = new ArrayList<>(entries.length);
+        synchronized (this) {
+            for (SlowQueryDTO entry : entries) {
+                if (entry != null) slowest.add(entry);
+            }
+        }
+        slowest.sort(Comparator.comparingLong(SlowQueryDTO::getElapsedMillis).reversed());
+        return slowest;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(entries, null);
+        next = 0;
+    }
+
+    // In parameter index order; setNull passes the SQL type where the value would be
+    private List<String> values(List<ParameterSetOperation> parameters) {
+        return parameters.stream()
+                .sorted(Comparator.comparingInt(parameter ->
+                        parameter.getArgs()[0] instanceof Integer index ? index : Integer.MAX_VALUE))
+                .map(this::describe)
+                .toList();
+    }
+
+    private String describe(ParameterSetOperation parameter) {
+        Object value = parameter.getArgs()[1];
+        if (parameter.getMethod().getName().equals("setNull") || value == null) return "null";
+        return bindValues ? abbreviate(String.valueOf(value)) : value.getClass().getSimpleName();
+    }
+
+    private static String abbreviate(String value) {
+        return value.length() <= MAX_VALUE_LENGTH ? value : value.substring(0, MAX_VALUE_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,83 @@
+package gr.aueb.cf.tourapp.core.sql;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Statements, rows and database time of the work on the current thread while a scope is open.
+ * Scopes nest and every open one counts, so a test can measure around a request that measures
+ * itself. Work handed to another thread, like a streamed export, is not counted.
+ */
+public final class SqlStatistics {
+
+    private static final ThreadLocal<Deque<SqlStatistics>> SCOPES = new ThreadLocal<>();
+
+    private final String label;
+    private int statements;
+    private long rows;
+    private long elapsedMillis;
+
+    private SqlStatistics(String label) {
+        this.label = label;
+    }
+
+    public static SqlStatistics start(String label) {
+        Deque<SqlStatistics> scopes = SCOPES.get();
+        if (scopes == null) {
+            scopes = new ArrayDeque<>();
+            SCOPES.set(scopes);
+        }
+        SqlStatistics statistics = new SqlStatistics(label);
+        scopes.push(statistics);
+        return statistics;
+    }
+
+    public void stop() {
+        Deque<SqlStatistics> scopes = SCOPES.get();
+        if (scopes == null) return;
+        scopes.remove(this);
+        if (scopes.isEmpty()) SCOPES.remove();
+    }
+
+    /**
+     * The label of the innermost open scope, or null.
+     */
+    static String currentLabel() {
+        Deque<SqlStatistics> scopes = SCOPES.get();
+        return scopes == null ? null : scopes.peek().label;
+    }
+
+    static void recordStatement(long elapsedMillis, long rows) {
+        Deque<SqlStatistics> scopes = SCOPES.get();
+        if (scopes == null) return;
+        for (SqlStatistics statistics : scopes) {
+            statistics.statements++;
+            statistics.rows += rows;
+            statistics.elapsedMillis += elapsedMillis;
+        }
+    }
+
+    static void recordRow() {
+        Deque<SqlStatistics> scopes = SCOPES.get();
+        if (scopes == null) return;
+        for (SqlStatistics statistics : scopes) {
+            statistics.rows++;
+        }
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
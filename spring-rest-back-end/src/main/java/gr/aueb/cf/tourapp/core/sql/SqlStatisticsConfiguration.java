@@ -0,0 +1,39 @@
+package gr.aueb.cf.tourapp.core.sql;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "app.sql.statistics.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatisticsConfiguration {
+
+    @Bean
+    public SqlStatisticsListener sqlStatisticsListener(SlowQueryLog slowQueryLog) {
+        return new SqlStatisticsListener(slowQueryLog);
+    }
+
+    // Wraps the outermost data source, so statements are timed without the wait for a connection
+    @Bean
+    public static BeanPostProcessor sqlStatisticsDataSourcePostProcessor(ObjectProvider<SqlStatisticsListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) return bean;
+
+                SqlStatisticsListener statisticsListener = listener.getObject();
+                return ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(statisticsListener)
+                        .methodListener(statisticsListener)
+                        .proxyResultSet()
+                        .build();
+            }
+        };
+    }
+}
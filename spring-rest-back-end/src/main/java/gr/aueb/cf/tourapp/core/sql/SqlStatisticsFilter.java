@@ -0,0 +1,80 @@
+package gr.aueb.cf.tourapp.core.sql;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Measures the SQL of every request and reports it in response headers, written just before the
+ * response commits, and in the log, as a warning when the request ran more statements than the budget.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.sql.statistics.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String ROWS_HEADER = "X-SQL-Rows";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+    public static final String BUDGET_EXCEEDED_HEADER = "X-SQL-Budget-Exceeded";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SqlStatisticsFilter.class);
+    private final int statementBudget;
+    private final boolean responseHeaders;
+
+    public SqlStatisticsFilter(@Value("${app.sql.statement-budget:10}") int statementBudget,
+                               @Value("${app.sql.response-headers:true}") boolean responseHeaders) {
+        this.statementBudget = statementBudget;
+        this.responseHeaders = responseHeaders;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        SqlStatistics statistics = SqlStatistics.start(request.getMethod() + " " + request.getRequestURI());
+        HttpServletResponse measured = !responseHeaders ? response : new OnCommittedResponseWrapper(response) {
+            @Override
+            protected void onResponseCommitted() {
+                writeHeaders(statistics, response);
+            }
+        };
+        try {
+            filterChain.doFilter(request, measured);
+        } finally {
+            statistics.stop();
+            if (responseHeaders && !response.isCommitted()) writeHeaders(statistics, response);
+            log(statistics);
+        }
+    }
+
+    private void writeHeaders(SqlStatistics statistics, HttpServletResponse response) {
+        response.setHeader(STATEMENTS_HEADER, String.valueOf(statistics.getStatements()));
+        response.setHeader(ROWS_HEADER, String.valueOf(statistics.getRows()));
+        response.setHeader(TIME_HEADER, String.valueOf(statistics.getElapsedMillis()));
+        if (statistics.getStatements() > statementBudget) response.setHeader(BUDGET_EXCEEDED_HEADER, "true");
+    }
+
+    private void log(SqlStatistics statistics) {
+        if (statistics.getStatements() > statementBudget) {
+            LOGGER.warn("{} ran {} SQL statements, over the budget of {} ({} rows, {} ms)", statistics.getLabel(),
+                    statistics.getStatements(), statementBudget, statistics.getRows(), statistics.getElapsedMillis());
+        } else if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("{} ran {} SQL statements ({} rows, {} ms)", statistics.getLabel(),
+                    statistics.getStatements(), statistics.getRows(), statistics.getElapsedMillis());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package gr.aueb.cf.tourapp.core.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Counts every statement sent (a batch once, with all its rows) and every row read from a result
+ * set into the open {@link SqlStatistics} scopes, and hands slow statements to the {@link SlowQueryLog}.
+ */
+public class SqlStatisticsListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private final SlowQueryLog slowQueryLog;
+
+    public SqlStatisticsListener(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+        SqlStatistics.recordStatement(execution.getElapsedTime(), updatedRows(execution.getResult()));
+        slowQueryLog.offer(execution, queries, SqlStatistics.currentLabel());
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext context) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext context) {
+        if (context.getTarget() instanceof ResultSet && Boolean.TRUE.equals(context.getResult())
+                && context.getMethod().getName().equals("next")) {
+            SqlStatistics.recordRow();
+        }
+    }
+
+    // Queries return a result set and count their rows as they are read
+    private static long updatedRows(Object result) {
+        if (result instanceof Integer count) return Math.max(count, 0);
+        if (result instanceof Long count) return Math.max(count, 0);
+        long rows = 0;
+        if (result instanceof int[] counts) {
+            for (int count : counts) rows += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+        } else if (result instanceof long[] counts) {
+            for (long count : counts) rows += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+        }
+        return rows;
+    }
+}
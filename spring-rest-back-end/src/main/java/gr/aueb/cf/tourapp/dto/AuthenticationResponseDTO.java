@@ -14,4 +14,5 @@ public class AuthenticationResponseDTO {
     private String firstname;
     private String lastname;
     private String token;
+    private String refreshToken;
 }
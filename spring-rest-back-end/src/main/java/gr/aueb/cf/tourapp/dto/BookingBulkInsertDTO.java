@@ -0,0 +1,22 @@
+package gr.aueb.cf.tourapp.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBulkInsertDTO {
+
+    @NotEmpty(message = "Bookings cannot be empty")
+    @Size(max = 500, message = "At most 500 bookings can be inserted at once")
+    private List<@Valid BookingInsertDTO> bookings;
+}
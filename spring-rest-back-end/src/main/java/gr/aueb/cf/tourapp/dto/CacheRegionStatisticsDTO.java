@@ -0,0 +1,21 @@
+package gr.aueb.cf.tourapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheRegionStatisticsDTO {
+
+    private String region;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    // -1 when the provider cannot tell
+    private long elementCountInMemory;
+    private double hitRatio;
+}
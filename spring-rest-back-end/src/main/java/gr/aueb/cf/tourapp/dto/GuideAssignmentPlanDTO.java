@@ -0,0 +1,23 @@
+package gr.aueb.cf.tourapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GuideAssignmentPlanDTO {
+
+    private boolean dryRun;
+    // Upcoming bookings without a guide when the plan was made
+    private int unassignedBookings;
+    private int planned;
+    // Planned bookings actually updated; those claimed by hand meanwhile are skipped
+    private int applied;
+    private List<GuideAssignmentDTO> assignments;
+}
@@ -0,0 +1,22 @@
+package gr.aueb.cf.tourapp.dto;
+
+import gr.aueb.cf.tourapp.core.enums.RegistrationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegistrationResultDTO {
+
+    // 1-based, not counting a CSV header
+    private int row;
+    private String username;
+    private RegistrationStatus status;
+    private Long id;
+    private String uuid;
+    private String message;
+}
@@ -0,0 +1,25 @@
+package gr.aueb.cf.tourapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowQueryDTO {
+
+    private String sql;
+    // One list of parameter types per execution of the statement, the first few of a batch (bind values when enabled)
+    private List<List<String>> parameters;
+    private long elapsedMillis;
+    private int batchSize;
+    // The request that ran it, e.g. "GET /api/bookings", or null outside a request
+    private String request;
+    private Instant executedAt;
+}
@@ -1,9 +1,16 @@
 package gr.aueb.cf.tourapp.mapper;
 
+import gr.aueb.cf.tourapp.authentication.UserIdentityService;
+import gr.aueb.cf.tourapp.core.exceptions.AppObjectInvalidArgumentException;
 import gr.aueb.cf.tourapp.dto.*;
 import gr.aueb.cf.tourapp.model.*;
+import gr.aueb.cf.tourapp.repository.CustomerRepository;
 import gr.aueb.cf.tourapp.repository.TourRepository;
-import gr.aueb.cf.tourapp.repository.UserRepository;
+import gr.aueb.cf.tourapp.repository.projections.BookingProjection;
+import gr.aueb.cf.tourapp.repository.projections.CustomerProjection;
+import gr.aueb.cf.tourapp.repository.projections.GuideProjection;
+import gr.aueb.cf.tourapp.repository.projections.TourProjection;
+import gr.aueb.cf.tourapp.service.TourCatalog;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
@@ -13,15 +20,21 @@ import org.springframework.stereotype.Component;
 public class Mapper {
 
     private final PasswordEncoder passwordEncoder;
-    private final UserRepository userRepository;
+    private final UserIdentityService userIdentityService;
+    private final CustomerRepository customerRepository;
     private final TourRepository tourRepository;
+    private final TourCatalog tourCatalog;
 
     public User mapToUserEntity(UserInsertDTO dto) {
+        return mapToUserEntity(dto, passwordEncoder.encode(dto.getPassword()));
+    }
+
+    public User mapToUserEntity(UserInsertDTO dto, String encodedPassword) {
         User user = new User();
         user.setFirstname(dto.getFirstname());
         user.setLastname(dto.getLastname());
         user.setUsername(dto.getUsername());
-        user.setPassword(passwordEncoder.encode(dto.getPassword()));
+        user.setPassword(encodedPassword);
         user.setDateOfBirth(dto.getDateOfBirth());
         user.setGenderType(dto.getGenderType());
         user.setRole(dto.getRole());
@@ -49,6 +62,10 @@ public class Mapper {
     }
 
     public TourReadOnlyDTO mapToTourReadOnlyDTO(Tour tour) {
+        // Reading the id does not initialize a tour reference, the rest comes from the catalog
+        var cached = tourCatalog.findById(tour.getId());
+        if (cached.isPresent()) return mapToTourReadOnlyDTO(cached.get());
+
         TourReadOnlyDTO tourReadOnlyDTO = new TourReadOnlyDTO();
         tourReadOnlyDTO.setId(tour.getId());
         tourReadOnlyDTO.setCategory(tour.getCategory());
@@ -58,15 +75,18 @@ public class Mapper {
     }
 
     public Guide mapToGuideEntity(GuideInsertDTO dto) {
+        return mapToGuideEntity(dto, passwordEncoder.encode(dto.getUserInsertDTO().getPassword()));
+    }
+
+    public Guide mapToGuideEntity(GuideInsertDTO dto, String encodedPassword) {
         Guide guide = new Guide();
         guide.setIsActive(dto.getIsActive());
 
         UserInsertDTO userInsertDTO = dto.getUserInsertDTO();
-        User user = mapToUserEntity(userInsertDTO);
+        User user = mapToUserEntity(userInsertDTO, encodedPassword);
         guide.setUser(user);
 
-        Tour tour = tourRepository.findByCategory(dto.getTourCategory()).get();
-        guide.setTour(tour);
+        guide.setTour(tourOf(dto.getTourCategory()));
 
         return guide;
     }
@@ -90,11 +110,15 @@ public class Mapper {
     }
 
     public Customer mapToCustomerEntity(CustomerInsertDTO dto) {
+        return mapToCustomerEntity(dto, passwordEncoder.encode(dto.getUserInsertDTO().getPassword()));
+    }
+
+    public Customer mapToCustomerEntity(CustomerInsertDTO dto, String encodedPassword) {
         Customer customer = new Customer();
         customer.setIsActive(dto.getIsActive());
 
         UserInsertDTO userInsertDTO = dto.getUserInsertDTO();
-        User user = mapToUserEntity(userInsertDTO);
+        User user = mapToUserEntity(userInsertDTO, encodedPassword);
         customer.setUser(user);
 
         return customer;
@@ -117,13 +141,11 @@ public class Mapper {
     public Booking mapToBookingEntity(BookingInsertDTO dto, String username) {
         Booking booking = new Booking();
         booking.setBookingDate(dto.getBookingDate());
-        // Fetch user
-        User user = userRepository.findByUsername(username).get();
-        booking.setCustomer(user.getCustomer());
+        // Resolve the customer id without loading the user
+        Long customerId = userIdentityService.resolve(username).customerId();
+        booking.setCustomer(customerRepository.getReferenceById(customerId));
 
-        // Fetch tour
-        Tour tour = tourRepository.findByCategory(dto.getTourCategory()).get();
-        booking.setTour(tour);
+        booking.setTour(tourOf(dto.getTourCategory()));
 
         return booking;
     }
@@ -150,4 +172,48 @@ public class Mapper {
 
         return dto;
     }
+
+    public TourReadOnlyDTO mapToTourReadOnlyDTO(TourProjection tour) {
+        return new TourReadOnlyDTO(tour.id(), tour.category(), tour.price());
+    }
+
+    public CustomerReadOnlyDTO mapToCustomerReadOnlyDTO(CustomerProjection customer) {
+        return new CustomerReadOnlyDTO(customer.id(), customer.uuid(), customer.isActive(),
+                new UserReadOnlyDTO(customer.firstname(), customer.lastname(), customer.vat()));
+    }
+
+    public GuideReadOnlyDTO mapToGuideReadOnlyDTO(GuideProjection guide) {
+        return new GuideReadOnlyDTO(guide.id(), guide.uuid(), guide.isActive(),
+                new UserReadOnlyDTO(guide.firstname(), guide.lastname(), guide.vat()),
+                new TourReadOnlyDTO(guide.tourId(), guide.tourCategory(), guide.tourPrice()));
+    }
+
+    public BookingReadOnlyDTO mapToBookingReadOnlyDTO(BookingProjection booking) {
+        BookingReadOnlyDTO dto = new BookingReadOnlyDTO();
+        dto.setId(booking.id());
+        dto.setBookingDate(booking.bookingDate());
+
+        dto.setCustomerReadOnlyDTO(new CustomerReadOnlyDTO(booking.customerId(), booking.customerUuid(),
+                booking.customerIsActive(),
+                new UserReadOnlyDTO(booking.customerFirstname(), booking.customerLastname(), booking.customerVat())));
+
+        // The guide columns come back null from the left join until a guide claims the booking
+        if (booking.guideId() != null) {
+            dto.setGuideReadOnlyDTO(new GuideReadOnlyDTO(booking.guideId(), booking.guideUuid(), booking.guideIsActive(),
+                    new UserReadOnlyDTO(booking.guideFirstname(), booking.guideLastname(), booking.guideVat()),
+                    new TourReadOnlyDTO(booking.guideTourId(), booking.guideTourCategory(), booking.guideTourPrice())));
+        } else {
+            dto.setGuideReadOnlyDTO(null);
+        }
+
+        dto.setTourReadOnlyDTO(new TourReadOnlyDTO(booking.tourId(), booking.tourCategory(), booking.tourPrice()));
+
+        return dto;
+    }
+
+    private Tour tourOf(String category) throws AppObjectInvalidArgumentException {
+        TourProjection tour = tourCatalog.findByCategory(category).orElseThrow(() ->
+                new AppObjectInvalidArgumentException("Tour", "There is no tour of the category " + category));
+        return tourRepository.getReferenceById(tour.id());
+    }
 }
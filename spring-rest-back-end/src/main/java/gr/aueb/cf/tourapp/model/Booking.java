@@ -13,9 +13,19 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "bookings")
+@Table(name = "bookings", uniqueConstraints = {
+        @UniqueConstraint(name = Booking.CUSTOMER_DATE_CONSTRAINT, columnNames = {"customer_id", "booking_date"}),
+        @UniqueConstraint(name = Booking.GUIDE_DATE_CONSTRAINT, columnNames = {"guide_id", "booking_date"})
+}, indexes = {
+        // customer_id and guide_id searches use the unique constraints above
+        @Index(name = "idx_bookings_date", columnList = "booking_date"),
+        @Index(name = "idx_bookings_tour_date", columnList = "tour_id, booking_date")
+})
 public class Booking extends AbstractEntity {
 
+    public static final String CUSTOMER_DATE_CONSTRAINT = "uk_bookings_customer_date";
+    public static final String GUIDE_DATE_CONSTRAINT = "uk_bookings_guide_date";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -2,6 +2,8 @@ package gr.aueb.cf.tourapp.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.UUID;
 
@@ -12,6 +14,7 @@ import java.util.UUID;
 @Setter
 @Builder
 @Table(name = "guides")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "guides")
 public class Guide extends AbstractEntity {
 
     @Id
@@ -3,6 +3,8 @@ package gr.aueb.cf.tourapp.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Getter
@@ -11,6 +13,7 @@ import lombok.*;
 @AllArgsConstructor
 @Builder
 @Table(name = "tours")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tours")
 public class Tour extends AbstractEntity {
 
     @Id
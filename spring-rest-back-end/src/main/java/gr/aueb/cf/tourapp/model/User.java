@@ -1,10 +1,12 @@
 package gr.aueb.cf.tourapp.model;
 
+import gr.aueb.cf.tourapp.authentication.UserIdentityListener;
 import gr.aueb.cf.tourapp.core.enums.GenderType;
 import gr.aueb.cf.tourapp.core.enums.Role;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -23,7 +25,8 @@ import java.util.List;
 @AllArgsConstructor
 @Getter
 @Setter
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_lastname", columnList = "lastname"))
+@EntityListeners(UserIdentityListener.class)
 public class User extends AbstractEntity implements UserDetails {
 
     @Id
@@ -70,6 +73,27 @@ public class User extends AbstractEntity implements UserDetails {
     @OneToOne(mappedBy = "user")
     private Customer customer;
 
+    // The role as last read from or written to the database
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Role storedRole;
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void roleStored() {
+        storedRole = role;
+    }
+
+    /**
+     * Whether the role that was loaded differs from the current one. Entity listeners run before
+     * this entity's own callbacks, so in {@code @PostUpdate} they still see the previous role.
+     */
+    public boolean isRoleChanged() {
+        return storedRole != null && storedRole != role;
+    }
+
     public boolean isGuide() {
         return getGuide() != null;
     }
@@ -0,0 +1,21 @@
+package gr.aueb.cf.tourapp.repository;
+
+import gr.aueb.cf.tourapp.model.Booking;
+
+import java.util.List;
+import java.util.Map;
+
+public interface BookingBatchRepository {
+
+    /**
+     * Inserts new bookings in a single JDBC batch and sets their generated ids. Hibernate sends
+     * IDENTITY inserts one at a time, so this bypasses the persistence context.
+     */
+    void insertAll(List<Booking> bookings);
+
+    /**
+     * Sets the guide of each booking, keyed by booking id, in a single JDBC batch. Bookings that got a
+     * guide in the meantime are left alone; returns how many were updated.
+     */
+    int assignGuides(Map<Long, Long> guideIdsByBookingId);
+}
@@ -0,0 +1,77 @@
+package gr.aueb.cf.tourapp.repository;
+
+import gr.aueb.cf.tourapp.model.Booking;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class BookingBatchRepositoryImpl implements BookingBatchRepository {
+
+    private static final String INSERT = "insert into bookings (uuid, booking_date, customer_id, guide_id, tour_id, " +
+            "created_at, updated_at) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String ASSIGN_GUIDE = "update bookings set guide_id = ?, updated_at = ? " +
+            "where id = ? and guide_id is null";
+
+    private static final int IDS_PER_QUERY = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookingBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<Booking> bookings) {
+        bookings.forEach(Booking::initializeUUID);
+        JdbcBatchInserts.insert(jdbcTemplate, INSERT, bookings, (statement, booking) -> {
+            statement.setString(1, booking.getUuid());
+            statement.setObject(2, booking.getBookingDate());
+            // Ids of references are read without initializing them
+            statement.setObject(3, booking.getCustomer() == null ? null : booking.getCustomer().getId(), Types.BIGINT);
+            statement.setObject(4, booking.getGuide() == null ? null : booking.getGuide().getId(), Types.BIGINT);
+            statement.setObject(5, booking.getTour() == null ? null : booking.getTour().getId(), Types.BIGINT);
+            statement.setObject(6, booking.getCreatedAt());
+            statement.setObject(7, booking.getUpdatedAt());
+        }, Booking::setId);
+    }
+
+    @Override
+    public int assignGuides(Map<Long, Long> guideIdsByBookingId) {
+        if (guideIdsByBookingId.isEmpty()) return 0;
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = guideIdsByBookingId.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), now, entry.getKey()})
+                .toList();
+        int[] counts = jdbcTemplate.batchUpdate(ASSIGN_GUIDE, rows);
+        // Rewritten batches may report SUCCESS_NO_INFO instead of a row count, so the applied ones are counted
+        if (Arrays.stream(counts).anyMatch(count -> count == Statement.SUCCESS_NO_INFO)) {
+            return countAssigned(guideIdsByBookingId);
+        }
+        return Arrays.stream(counts).sum();
+    }
+
+    /**
+     * Bookings that now have the guide of the plan, read within the same transaction as the updates.
+     */
+    private int countAssigned(Map<Long, Long> guideIdsByBookingId) {
+        List<Long> bookingIds = List.copyOf(guideIdsByBookingId.keySet());
+        int[] assigned = new int[1];
+        for (int from = 0; from < bookingIds.size(); from += IDS_PER_QUERY) {
+            List<Long> ids = bookingIds.subList(from, Math.min(from + IDS_PER_QUERY, bookingIds.size()));
+            String sql = "select id, guide_id from bookings where id in (" + "?,".repeat(ids.size() - 1) + "?)";
+            jdbcTemplate.query(sql, resultSet -> {
+                if (guideIdsByBookingId.get(resultSet.getLong(1)).equals(resultSet.getObject(2, Long.class))) {
+                    assigned[0]++;
+                }
+            }, ids.toArray());
+        }
+        return assigned[0];
+    }
+}
@@ -0,0 +1,22 @@
+package gr.aueb.cf.tourapp.repository;
+
+import gr.aueb.cf.tourapp.model.Booking;
+import gr.aueb.cf.tourapp.repository.projections.BookingProjection;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface BookingProjectionRepository {
+
+    List<BookingProjection> findAllProjected(Specification<Booking> spec, Sort sort);
+    List<BookingProjection> findAllProjected(Specification<Booking> spec, Sort sort, Limit limit);
+    Page<BookingProjection> findAllProjected(Specification<Booking> spec, Pageable pageable);
+    Slice<BookingProjection> findSliceProjected(Specification<Booking> spec, Pageable pageable);
+    Stream<BookingProjection> streamProjected(Specification<Booking> spec, Sort sort, int fetchSize);
+}
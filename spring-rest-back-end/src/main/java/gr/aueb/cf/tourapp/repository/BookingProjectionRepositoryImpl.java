@@ -0,0 +1,69 @@
+package gr.aueb.cf.tourapp.repository;
+
+import gr.aueb.cf.tourapp.model.*;
+import gr.aueb.cf.tourapp.repository.projections.BookingProjection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class BookingProjectionRepositoryImpl implements BookingProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingProjection> findAllProjected(Specification<Booking> spec, Sort sort) {
+        return SpecificationProjections.findAll(entityManager, Booking.class, BookingProjection.class,
+                BookingProjectionRepositoryImpl::select, spec, sort);
+    }
+
+    @Override
+    public List<BookingProjection> findAllProjected(Specification<Booking> spec, Sort sort, Limit limit) {
+        return SpecificationProjections.findAll(entityManager, Booking.class, BookingProjection.class,
+                BookingProjectionRepositoryImpl::select, spec, sort, limit);
+    }
+
+    @Override
+    public Page<BookingProjection> findAllProjected(Specification<Booking> spec, Pageable pageable) {
+        return SpecificationProjections.findAll(entityManager, Booking.class, BookingProjection.class,
+                BookingProjectionRepositoryImpl::select, spec, pageable);
+    }
+
+    @Override
+    public Slice<BookingProjection> findSliceProjected(Specification<Booking> spec, Pageable pageable) {
+        return SpecificationProjections.findSlice(entityManager, Booking.class, BookingProjection.class,
+                BookingProjectionRepositoryImpl::select, spec, pageable);
+    }
+
+    @Override
+    public Stream<BookingProjection> streamProjected(Specification<Booking> spec, Sort sort, int fetchSize) {
+        return SpecificationProjections.stream(entityManager, Booking.class, BookingProjection.class,
+                BookingProjectionRepositoryImpl::select, spec, sort, fetchSize);
+    }
+
+    private static CompoundSelection<BookingProjection> select(Root<Booking> root, CriteriaBuilder criteriaBuilder) {
+        Join<Booking, Customer> customer = root.join("customer", JoinType.LEFT);
+        Join<Customer, User> customerUser = customer.join("user", JoinType.LEFT);
+        Join<Booking, Guide> guide = root.join("guide", JoinType.LEFT);
+        Join<Guide, User> guideUser = guide.join("user", JoinType.LEFT);
+        Join<Guide, Tour> guideTour = guide.join("tour", JoinType.LEFT);
+        Join<Booking, Tour> tour = root.join("tour", JoinType.LEFT);
+        return criteriaBuilder.construct(BookingProjection.class,
+                root.get("id"), root.get("bookingDate"),
+                customer.get("id"), customer.get("uuid"), customer.get("isActive"),
+                customerUser.get("firstname"), customerUser.get("lastname"), customerUser.get("vat"),
+                guide.get("id"), guide.get("uuid"), guide.get("isActive"),
+                guideUser.get("firstname"), guideUser.get("lastname"), guideUser.get("vat"),
+                guideTour.get("id"), guideTour.get("category"), guideTour.get("price"),
+                tour.get("id"), tour.get("category"), tour.get("price"));
+    }
+}
@@ -1,16 +1,38 @@
 package gr.aueb.cf.tourapp.repository;
 
 import gr.aueb.cf.tourapp.model.Booking;
+import gr.aueb.cf.tourapp.model.Guide;
+import gr.aueb.cf.tourapp.repository.projections.AssignableBooking;
+import gr.aueb.cf.tourapp.repository.projections.GuideDay;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking>,
+        BookingProjectionRepository, BookingBatchRepository {
 
     Optional<Booking> findByUuid(String uuid);
     Optional<Booking> findByGuideId(Long id);
     Optional<Booking> findByCustomerId(Long id);
     Optional<Booking> findByBookingDate(LocalDate bookingDate);
+
+    /**
+     * Assigns the guide only if the booking has none yet; returns 0 when another guide got there first.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.guide = :guide where b.id = :bookingId and b.guide is null")
+    int claimGuide(Long bookingId, Guide guide);
+
+    @Query("select new gr.aueb.cf.tourapp.repository.projections.AssignableBooking(b.id, b.bookingDate, b.tour.id) " +
+            "from Booking b where b.guide is null and b.tour is not null and b.bookingDate > :date")
+    List<AssignableBooking> findAssignableAfter(LocalDate date);
+
+    @Query("select new gr.aueb.cf.tourapp.repository.projections.GuideDay(b.guide.id, b.bookingDate) " +
+            "from Booking b where b.guide is not null and b.bookingDate > :date")
+    List<GuideDay> findGuideDaysAfter(LocalDate date);
 }
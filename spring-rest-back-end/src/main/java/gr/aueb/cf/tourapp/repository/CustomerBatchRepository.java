@@ -0,0 +1,13 @@
+package gr.aueb.cf.tourapp.repository;
+
+import gr.aueb.cf.tourapp.model.Customer;
+
+import java.util.List;
+
+public interface CustomerBatchRepository {
+
+    /**
+     * Inserts new customers and their users in one JDBC batch per table and sets their generated ids.
+     */
+    void insertAll(List<Customer> customers);
+}
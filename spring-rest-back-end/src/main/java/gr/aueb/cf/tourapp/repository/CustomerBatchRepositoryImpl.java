@@ -0,0 +1,32 @@
+package gr.aueb.cf.tourapp.repository;
+
+import gr.aueb.cf.tourapp.model.Customer;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.List;
+
+public class CustomerBatchRepositoryImpl implements CustomerBatchRepository {
+
+    private static final String INSERT = "insert into customers (uuid, is_active, user_id, created_at, updated_at) " +
+            "values (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CustomerBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<Customer> customers) {
+        JdbcBatchInserts.insertUsers(jdbcTemplate, customers.stream().map(Customer::getUser).toList());
+        customers.forEach(Customer::initializeUUID);
+        JdbcBatchInserts.insert(jdbcTemplate, INSERT, customers, (statement, customer) -> {
+            statement.setString(1, customer.getUuid());
+            statement.setObject(2, customer.getIsActive(), Types.BOOLEAN);
+            statement.setLong(3, customer.getUser().getId());
+            statement.setObject(4, customer.getCreatedAt());
+            statement.setObject(5, customer.getUpdatedAt());
+        }, Customer::setId);
+    }
+}
@@ -0,0 +1,22 @@
+package gr.aueb.cf.tourapp.repository;
+
+import gr.aueb.cf.tourapp.model.Customer;
+import gr.aueb.cf.tourapp.repository.projections.CustomerProjection;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface CustomerProjectionRepository {
+
+    List<CustomerProjection> findAllProjected(Specification<Customer> spec, Sort sort);
+    List<CustomerProjection> findAllProjected(Specification<Customer> spec, Sort sort, Limit limit);
+    Page<CustomerProjection> findAllProjected(Specification<Customer> spec, Pageable pageable);
+    Slice<CustomerProjection> findSliceProjected(Specification<Customer> spec, Pageable pageable);
+    Stream<CustomerProjection> streamProjected(Specification<Customer> spec, Sort sort, int fetchSize);
+}
@@ -0,0 +1,63 @@
+package gr.aueb.cf.tourapp.repository;
+
+import gr.aueb.cf.tourapp.model.Customer;
+import gr.aueb.cf.tourapp.model.User;
+import gr.aueb.cf.tourapp.repository.projections.CustomerProjection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class CustomerProjectionRepositoryImpl implements CustomerProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CustomerProjection> findAllProjected(Specification<Customer> spec, Sort sort) {
+        return SpecificationProjections.findAll(entityManager, Customer.class, CustomerProjection.class,
+                CustomerProjectionRepositoryImpl::select, spec, sort);
+    }
+
+    @Override
+    public List<CustomerProjection> findAllProjected(Specification<Customer> spec, Sort sort, Limit limit) {
+        return SpecificationProjections.findAll(entityManager, Customer.class, CustomerProjection.class,
+                CustomerProjectionRepositoryImpl::select, spec, sort, limit);
+    }
+
+    @Override
+    public Page<CustomerProjection> findAllProjected(Specification<Customer> spec, Pageable pageable) {
+        return SpecificationProjections.findAll(entityManager, Customer.class, CustomerProjection.class,
+                CustomerProjectionRepositoryImpl::select, spec, pageable);
+    }
+
+    @Override
+    public Slice<CustomerProjection> findSliceProjected(Specification<Customer> spec, Pageable pageable) {
+        return SpecificationProjections.findSlice(entityManager, Customer.class, CustomerProjection.class,
+                CustomerProjectionRepositoryImpl::select, spec, pageable);
+    }
+
+    @Override
+    public Stream<CustomerProjection> streamProjected(Specification<Customer> spec, Sort sort, int fetchSize) {
+        return SpecificationProjections.stream(entityManager, Customer.class, CustomerProjection.class,
+                CustomerProjectionRepositoryImpl::select, spec, sort, fetchSize);
+    }
+
+    private static CompoundSelection<CustomerProjection> select(Root<Customer> root, CriteriaBuilder criteriaBuilder) {
+        Join<Customer, User> user = root.join("user");
+        return criteriaBuilder.construct(CustomerProjection.class,
+                root.get("id"), root.get("uuid"), root.get("isActive"),
+                user.get("firstname"), user.get("lastname"), user.get("vat"));
+    }
+}
@@ -0,0 +1,66 @@
+package gr.aueb.cf.tourapp.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Only with spring.threads.virtual.enabled on Java 21+, where request threads are no longer
+ * bounded by the Tomcat pool.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class DataSourceConfiguration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataSourceConfiguration.class);
+
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor(@Value("${app.db.max-concurrent:0}") int maxConcurrent,
+                                                                   @Value("${app.db.acquire-timeout:PT1M}") Duration acquireTimeout) {
+        return new BoundedDataSourcePostProcessor(maxConcurrent, acquireTimeout);
+    }
+
+    @Bean
+    public MeterBinder boundedDataSourceMetrics(DataSource dataSource) {
+        return meterRegistry -> {
+            try {
+                if (dataSource.isWrapperFor(BoundedDataSource.class)) {
+                    dataSource.unwrap(BoundedDataSource.class).bindTo(meterRegistry);
+                }
+            } catch (SQLException e) {
+                LOGGER.warn("Could not bind the connection permit metrics", e);
+            }
+        };
+    }
+
+    // First in line, so it wraps the pool itself before any other data source proxy
+    private record BoundedDataSourcePostProcessor(int maxConcurrent, Duration acquireTimeout)
+            implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource hikari)) return bean;
+
+            int permits = maxConcurrent > 0 ? maxConcurrent : hikari.getMaximumPoolSize();
+            LOGGER.info("Virtual threads: at most {} concurrent connections, waiting up to {}", permits, acquireTimeout);
+            return new BoundedDataSource(hikari, permits, acquireTimeout);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package gr.aueb.cf.tourapp.repository;
+
+import gr.aueb.cf.tourapp.model.Guide;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.List;
+
+public class GuideBatchRepositoryImpl implements GuideBatchRepository {
+
+    private static final String INSERT = "insert into guides (uuid, is_active, user_id, tour_id, created_at, updated_at) " +
+            "values (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public GuideBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<Guide> guides) {
+        JdbcBatchInserts.insertUsers(jdbcTemplate, guides.stream().map(Guide::getUser).toList());
+        guides.forEach(Guide::initializeUUID);
+        JdbcBatchInserts.insert(jdbcTemplate, INSERT, guides, (statement, guide) -> {
+            statement.setString(1, guide.getUuid());
+            statement.setObject(2, guide.getIsActive(), Types.BOOLEAN);
+            statement.setLong(3, guide.getUser().getId());
+            // The id of the tour reference is read without initializing it
+            statement.setObject(4, guide.getTour() == null ? null : guide.getTour().getId(), Types.BIGINT);
+            statement.setObject(5, guide.getCreatedAt());
+            statement.setObject(6, guide.getUpdatedAt());
+        }, Guide::setId);
+    }
+}
@@ -0,0 +1,22 @@
+package gr.aueb.cf.tourapp.repository;
+
+import gr.aueb.cf.tourapp.model.Guide;
+import gr.aueb.cf.tourapp.repository.projections.GuideProjection;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface GuideProjectionRepository {
+
+    List<GuideProjection> findAllProjected(Specification<Guide> spec, Sort sort);
+    List<GuideProjection> findAllProjected(Specification<Guide> spec, Sort sort, Limit limit);
+    Page<GuideProjection> findAllProjected(Specification<Guide> spec, Pageable pageable);
+    Slice<GuideProjection> findSliceProjected(Specification<Guide> spec, Pageable pageable);
+    Stream<GuideProjection> streamProjected(Specification<Guide> spec, Sort sort, int fetchSize);
+}
@@ -0,0 +1,63 @@
+package gr.aueb.cf.tourapp.repository;
+
+import gr.aueb.cf.tourapp.model.Guide;
+import gr.aueb.cf.tourapp.model.Tour;
+import gr.aueb.cf.tourapp.model.User;
+import gr.aueb.cf.tourapp.repository.projections.GuideProjection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class GuideProjectionRepositoryImpl implements GuideProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<GuideProjection> findAllProjected(Specification<Guide> spec, Sort sort) {
+        return SpecificationProjections.findAll(entityManager, Guide.class, GuideProjection.class,
+                GuideProjectionRepositoryImpl::select, spec, sort);
+    }
+
+    @Override
+    public List<GuideProjection> findAllProjected(Specification<Guide> spec, Sort sort, Limit limit) {
+        return SpecificationProjections.findAll(entityManager, Guide.class, GuideProjection.class,
+                GuideProjectionRepositoryImpl::select, spec, sort, limit);
+    }
+
+    @Override
+    public Page<GuideProjection> findAllProjected(Specification<Guide> spec, Pageable pageable) {
+        return SpecificationProjections.findAll(entityManager, Guide.class, GuideProjection.class,
+                GuideProjectionRepositoryImpl::select, spec, pageable);
+    }
+
+    @Override
+    public Slice<GuideProjection> findSliceProjected(Specification<Guide> spec, Pageable pageable) {
+        return SpecificationProjections.findSlice(entityManager, Guide.class, GuideProjection.class,
+                GuideProjectionRepositoryImpl::select, spec, pageable);
+    }
+
+    @Override
+    public Stream<GuideProjection> streamProjected(Specification<Guide> spec, Sort sort, int fetchSize) {
+        return SpecificationProjections.stream(entityManager, Guide.class, GuideProjection.class,
+                GuideProjectionRepositoryImpl::select, spec, sort, fetchSize);
+    }
+
+    private static CompoundSelection<GuideProjection> select(Root<Guide> root, CriteriaBuilder criteriaBuilder) {
+        Join<Guide, User> user = root.join("user");
+        Join<Guide, Tour> tour = root.join("tour", JoinType.LEFT);
+        return criteriaBuilder.construct(GuideProjection.class,
+                root.get("id"), root.get("uuid"), root.get("isActive"),
+                user.get("firstname"), user.get("lastname"), user.get("vat"),
+                tour.get("id"), tour.get("category"), tour.get("price"));
+    }
+}
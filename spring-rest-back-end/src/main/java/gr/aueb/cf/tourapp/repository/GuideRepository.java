@@ -1,13 +1,22 @@
 package gr.aueb.cf.tourapp.repository;
 
 import gr.aueb.cf.tourapp.model.Guide;
+import gr.aueb.cf.tourapp.repository.projections.GuideTour;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
-public interface GuideRepository extends JpaRepository<Guide, Long>, JpaSpecificationExecutor<Guide> {
+public interface GuideRepository extends JpaRepository<Guide, Long>, JpaSpecificationExecutor<Guide>,
+        GuideProjectionRepository, GuideBatchRepository {
 
     Optional<Guide> findByUserId(Long id);
+
     Optional<Guide> findByUuid(String uuid);
+
+    @Query("select new gr.aueb.cf.tourapp.repository.projections.GuideTour(g.id, g.tour.id) " +
+            "from Guide g where g.isActive = true and g.tour is not null")
+    List<GuideTour> findActiveGuideTours();
 }
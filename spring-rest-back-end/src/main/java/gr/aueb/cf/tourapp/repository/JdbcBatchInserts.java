@@ -0,0 +1,85 @@
+package gr.aueb.cf.tourapp.repository;
+
+import gr.aueb.cf.tourapp.model.AbstractEntity;
+import gr.aueb.cf.tourapp.model.User;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Inserts new rows of a table with IDENTITY ids in a single JDBC batch and reads the generated ids
+ * back. Hibernate sends IDENTITY inserts one at a time, so these bypass the persistence context.
+ */
+final class JdbcBatchInserts {
+
+    private static final String INSERT_USER = "insert into users (username, password, firstname, lastname, email, " +
+            "vat, date_of_birth, gender_type, nationality, role, is_active, created_at, updated_at) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private JdbcBatchInserts() {
+
+    }
+
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement statement, T row) throws SQLException;
+    }
+
+    static <T extends AbstractEntity> void insert(JdbcTemplate jdbcTemplate, String sql, List<T> rows,
+                                                  Binder<T> binder, BiConsumer<T, Long> idSetter) {
+        if (rows.isEmpty()) return;
+
+        // What the auditing listener would set
+        LocalDateTime now = LocalDateTime.now();
+        for (T row : rows) {
+            row.setCreatedAt(now);
+            row.setUpdatedAt(now);
+        }
+
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(sql, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        binder.bind(statement, rows.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                }, keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < rows.size(); i++) {
+            idSetter.accept(rows.get(i), ((Number) generated.get(i).values().iterator().next()).longValue());
+        }
+    }
+
+    static void insertUsers(JdbcTemplate jdbcTemplate, List<User> users) {
+        insert(jdbcTemplate, INSERT_USER, users, (statement, user) -> {
+            statement.setString(1, user.getUsername());
+            statement.setString(2, user.getPassword());
+            statement.setString(3, user.getFirstname());
+            statement.setString(4, user.getLastname());
+            statement.setString(5, user.getEmail());
+            statement.setString(6, user.getVat());
+            statement.setObject(7, user.getDateOfBirth());
+            statement.setString(8, user.getGenderType() == null ? null : user.getGenderType().name());
+            statement.setString(9, user.getNationality());
+            statement.setString(10, user.getRole() == null ? null : user.getRole().name());
+            statement.setObject(11, user.getIsActive(), Types.BOOLEAN);
+            statement.setObject(12, user.getCreatedAt());
+            statement.setObject(13, user.getUpdatedAt());
+        }, User::setId);
+    }
+}
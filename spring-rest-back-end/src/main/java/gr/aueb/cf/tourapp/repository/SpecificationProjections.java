@@ -0,0 +1,129 @@
+package gr.aueb.cf.tourapp.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Runs a {@link Specification} as a constructor-expression query, so only the selected
+ * columns are read and no managed entities are created.
+ */
+final class SpecificationProjections {
+
+    private SpecificationProjections() {
+
+    }
+
+    @FunctionalInterface
+    interface Selector<T, P> {
+        CompoundSelection<P> select(Root<T> root, CriteriaBuilder criteriaBuilder);
+    }
+
+    static <T, P> List<P> findAll(EntityManager entityManager, Class<T> domainClass, Class<P> projectionClass,
+                                  Selector<T, P> selector, Specification<T> spec, Sort sort) {
+        return findAll(entityManager, domainClass, projectionClass, selector, spec, sort, Limit.unlimited());
+    }
+
+    static <T, P> List<P> findAll(EntityManager entityManager, Class<T> domainClass, Class<P> projectionClass,
+                                  Selector<T, P> selector, Specification<T> spec, Sort sort, Limit limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<P> query = criteriaBuilder.createQuery(projectionClass);
+        Root<T> root = query.from(domainClass);
+        query.select(selector.select(root, criteriaBuilder));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) query.where(predicate);
+        if (sort != null && sort.isSorted()) query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+
+        var typedQuery = entityManager.createQuery(query);
+        if (limit.isLimited()) typedQuery.setMaxResults(limit.max());
+        return typedQuery.getResultList();
+    }
+
+    static <T, P> Page<P> findAll(EntityManager entityManager, Class<T> domainClass, Class<P> projectionClass,
+                                  Selector<T, P> selector, Specification<T> spec, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<P> query = criteriaBuilder.createQuery(projectionClass);
+        Root<T> root = query.from(domainClass);
+        query.select(selector.select(root, criteriaBuilder));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) query.where(predicate);
+        if (pageable.getSort().isSorted()) query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+
+        var typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable,
+                () -> count(entityManager, domainClass, spec));
+    }
+
+    /**
+     * A page without the count query; one extra row tells whether a next page exists.
+     */
+    static <T, P> Slice<P> findSlice(EntityManager entityManager, Class<T> domainClass, Class<P> projectionClass,
+                                     Selector<T, P> selector, Specification<T> spec, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<P> query = criteriaBuilder.createQuery(projectionClass);
+        Root<T> root = query.from(domainClass);
+        query.select(selector.select(root, criteriaBuilder));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) query.where(predicate);
+        if (pageable.getSort().isSorted()) query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+
+        var typedQuery = entityManager.createQuery(query);
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        typedQuery.setMaxResults(pageable.getPageSize() + 1);
+        List<P> rows = typedQuery.getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    /**
+     * Rows are read from the open result set as the stream is consumed, {@code fetchSize} at a time.
+     * The caller must close the stream inside the transaction.
+     */
+    static <T, P> Stream<P> stream(EntityManager entityManager, Class<T> domainClass, Class<P> projectionClass,
+                                   Selector<T, P> selector, Specification<T> spec, Sort sort, int fetchSize) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<P> query = criteriaBuilder.createQuery(projectionClass);
+        Root<T> root = query.from(domainClass);
+        query.select(selector.select(root, criteriaBuilder));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) query.where(predicate);
+        if (sort != null && sort.isSorted()) query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    static <T> long count(EntityManager entityManager, Class<T> domainClass, Specification<T> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<T> root = query.from(domainClass);
+        query.select(criteriaBuilder.count(root));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) query.where(predicate);
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
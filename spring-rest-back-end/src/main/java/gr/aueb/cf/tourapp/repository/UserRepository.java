@@ -1,9 +1,15 @@
 package gr.aueb.cf.tourapp.repository;
 
 import gr.aueb.cf.tourapp.model.User;
+import gr.aueb.cf.tourapp.repository.projections.UserIdentity;
+import gr.aueb.cf.tourapp.repository.projections.UserKeys;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
@@ -14,4 +20,19 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
     Optional<User> findByLastname(String lastname);
 
     Optional<User> findByRole(String role);
+
+    @Query("select new gr.aueb.cf.tourapp.repository.projections.UserIdentity(u.id, u.username, u.role, c.id, g.id, u.isActive) " +
+            "from User u left join u.customer c left join u.guide g where u.username = :username")
+    Optional<UserIdentity> findIdentityByUsername(String username);
+
+    /**
+     * The users that already hold any of the usernames or vat numbers, checked in one query.
+     */
+    @Query("select new gr.aueb.cf.tourapp.repository.projections.UserKeys(u.username, u.vat) " +
+            "from User u where u.username in :usernames or u.vat in :vats")
+    List<UserKeys> findKeysByUsernameInOrVatIn(Collection<String> usernames, Collection<String> vats);
+
+    @Modifying
+    @Query("update User u set u.password = :password where u.username = :username")
+    int updatePassword(String username, String password);
 }
@@ -0,0 +1,6 @@
+package gr.aueb.cf.tourapp.repository.projections;
+
+import java.time.LocalDate;
+
+public record AssignableBooking(Long id, LocalDate bookingDate, Long tourId) {
+}
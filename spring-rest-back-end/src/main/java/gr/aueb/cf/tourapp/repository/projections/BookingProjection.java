@@ -0,0 +1,21 @@
+package gr.aueb.cf.tourapp.repository.projections;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.function.Function;
+
+public record BookingProjection(Long id, LocalDate bookingDate,
+                                Long customerId, String customerUuid, Boolean customerIsActive,
+                                String customerFirstname, String customerLastname, String customerVat,
+                                Long guideId, String guideUuid, Boolean guideIsActive,
+                                String guideFirstname, String guideLastname, String guideVat,
+                                Long guideTourId, String guideTourCategory, Double guideTourPrice,
+                                Long tourId, String tourCategory, Double tourPrice) {
+
+    // Entity properties that keyset pages can be sorted by, and where their value is in the projection
+    public static final Map<String, Function<BookingProjection, Object>> SORT_KEYS = Map.of(
+            "id", BookingProjection::id,
+            "bookingDate", BookingProjection::bookingDate,
+            "tour.category", BookingProjection::tourCategory,
+            "tour.price", BookingProjection::tourPrice);
+}
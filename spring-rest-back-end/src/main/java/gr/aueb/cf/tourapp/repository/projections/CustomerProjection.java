@@ -0,0 +1,17 @@
+package gr.aueb.cf.tourapp.repository.projections;
+
+import java.util.Map;
+import java.util.function.Function;
+
+public record CustomerProjection(Long id, String uuid, Boolean isActive,
+                                 String firstname, String lastname, String vat) {
+
+    // Entity properties that keyset pages can be sorted by, and where their value is in the projection
+    public static final Map<String, Function<CustomerProjection, Object>> SORT_KEYS = Map.of(
+            "id", CustomerProjection::id,
+            "uuid", CustomerProjection::uuid,
+            "isActive", CustomerProjection::isActive,
+            "user.firstname", CustomerProjection::firstname,
+            "user.lastname", CustomerProjection::lastname,
+            "user.vat", CustomerProjection::vat);
+}
@@ -0,0 +1,20 @@
+package gr.aueb.cf.tourapp.repository.projections;
+
+import java.util.Map;
+import java.util.function.Function;
+
+public record GuideProjection(Long id, String uuid, Boolean isActive,
+                              String firstname, String lastname, String vat,
+                              Long tourId, String tourCategory, Double tourPrice) {
+
+    // Entity properties that keyset pages can be sorted by, and where their value is in the projection
+    public static final Map<String, Function<GuideProjection, Object>> SORT_KEYS = Map.of(
+            "id", GuideProjection::id,
+            "uuid", GuideProjection::uuid,
+            "isActive", GuideProjection::isActive,
+            "user.firstname", GuideProjection::firstname,
+            "user.lastname", GuideProjection::lastname,
+            "user.vat", GuideProjection::vat,
+            "tour.category", GuideProjection::tourCategory,
+            "tour.price", GuideProjection::tourPrice);
+}
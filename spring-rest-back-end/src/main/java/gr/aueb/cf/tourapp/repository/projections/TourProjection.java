@@ -0,0 +1,4 @@
+package gr.aueb.cf.tourapp.repository.projections;
+
+public record TourProjection(Long id, String category, Double price) {
+}
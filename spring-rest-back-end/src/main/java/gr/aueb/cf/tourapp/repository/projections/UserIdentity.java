@@ -0,0 +1,7 @@
+package gr.aueb.cf.tourapp.repository.projections;
+
+import gr.aueb.cf.tourapp.core.enums.Role;
+
+public record UserIdentity(Long userId, String username, Role role,
+                           Long customerId, Long guideId, Boolean isActive) {
+}
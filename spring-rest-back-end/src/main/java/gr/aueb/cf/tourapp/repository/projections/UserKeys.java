@@ -0,0 +1,4 @@
+package gr.aueb.cf.tourapp.repository.projections;
+
+public record UserKeys(String username, String vat) {
+}
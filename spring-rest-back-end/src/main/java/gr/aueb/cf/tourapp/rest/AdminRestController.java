@@ -0,0 +1,183 @@
+package gr.aueb.cf.tourapp.rest;
+
+import gr.aueb.cf.tourapp.core.exceptions.AppObjectAlreadyExistsException;
+import gr.aueb.cf.tourapp.core.sql.SlowQueryLog;
+import gr.aueb.cf.tourapp.dto.CacheRegionStatisticsDTO;
+import gr.aueb.cf.tourapp.dto.GuideAssignmentPlanDTO;
+import gr.aueb.cf.tourapp.dto.SlowQueryDTO;
+import gr.aueb.cf.tourapp.service.CacheStatisticsService;
+import gr.aueb.cf.tourapp.service.GuideAssignmentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin")
+public class AdminRestController {
+
+    private final CacheStatisticsService cacheStatisticsService;
+    private final GuideAssignmentService guideAssignmentService;
+    private final SlowQueryLog slowQueryLog;
+
+    @Operation(
+            summary = "Get the hit and miss counts of the second-level cache regions",
+            security = @SecurityRequirement(name = "Bearer Authentication"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Statistics found",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = CacheRegionStatisticsDTO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Unauthorized",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Access Denied",
+                            content = @Content
+                    )
+            }
+    )
+    @GetMapping("/cache/statistics")
+    public ResponseEntity<List<CacheRegionStatisticsDTO>> getCacheStatistics() {
+        return new ResponseEntity<>(cacheStatisticsService.getRegionStatistics(), HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Plan guide assignments for the upcoming unassigned bookings without applying them",
+            security = @SecurityRequirement(name = "Bearer Authentication"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Plan computed",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = GuideAssignmentPlanDTO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Unauthorized",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Access Denied",
+                            content = @Content
+                    )
+            }
+    )
+    @GetMapping("/guide-assignments/plan")
+    public ResponseEntity<GuideAssignmentPlanDTO> planGuideAssignments() {
+        return new ResponseEntity<>(guideAssignmentService.planAssignments(), HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Assign guides to the upcoming unassigned bookings",
+            security = @SecurityRequirement(name = "Bearer Authentication"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Assignments applied",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = GuideAssignmentPlanDTO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Unauthorized",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Access Denied",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "409",
+                            description = "A guide claimed a booking meanwhile",
+                            content = @Content
+                    )
+            }
+    )
+    @PostMapping("/guide-assignments")
+    public ResponseEntity<GuideAssignmentPlanDTO> assignGuides() throws AppObjectAlreadyExistsException {
+        return new ResponseEntity<>(guideAssignmentService.assignGuides(), HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Get the recent slow SQL statements with their parameter types, slowest first. "
+                    + "Bind values are only kept when app.sql.slow-query.bind-values is true",
+            security = @SecurityRequirement(name = "Bearer Authentication"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Slow statements found",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = SlowQueryDTO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Unauthorized",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Access Denied",
+                            content = @Content
+                    )
+            }
+    )
+    @GetMapping("/sql/slow-queries")
+    public ResponseEntity<List<SlowQueryDTO>> getSlowQueries() {
+        return new ResponseEntity<>(slowQueryLog.getSlowest(), HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Clear the recent slow SQL statements",
+            security = @SecurityRequirement(name = "Bearer Authentication"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "204",
+                            description = "Slow statements cleared",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Unauthorized",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Access Denied",
+                            content = @Content
+                    )
+            }
+    )
+    @DeleteMapping("/sql/slow-queries")
+    public ResponseEntity<Void> clearSlowQueries() {
+        slowQueryLog.clear();
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+}
@@ -4,6 +4,7 @@ import gr.aueb.cf.tourapp.authentication.AuthenticationService;
 import gr.aueb.cf.tourapp.core.exceptions.AppObjectNotAuthorizedException;
 import gr.aueb.cf.tourapp.dto.AuthenticationRequestDTO;
 import gr.aueb.cf.tourapp.dto.AuthenticationResponseDTO;
+import gr.aueb.cf.tourapp.dto.RefreshTokenRequestDTO;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,4 +30,17 @@ public class AuthRestController {
         LOGGER.info("User authenticated");
         return new ResponseEntity<>(authenticationResponseDTO, HttpStatus.OK);
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthenticationResponseDTO> refresh(@RequestBody RefreshTokenRequestDTO refreshTokenRequestDTO)
+            throws AppObjectNotAuthorizedException {
+        AuthenticationResponseDTO authenticationResponseDTO = authenticationService.refresh(refreshTokenRequestDTO);
+        return new ResponseEntity<>(authenticationResponseDTO, HttpStatus.OK);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody RefreshTokenRequestDTO refreshTokenRequestDTO) {
+        authenticationService.logout(refreshTokenRequestDTO);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
 }
@@ -1,25 +1,35 @@
 package gr.aueb.cf.tourapp.rest;
 
+import gr.aueb.cf.tourapp.core.enums.CountMode;
+import gr.aueb.cf.tourapp.core.enums.ExportFormat;
 import gr.aueb.cf.tourapp.core.exceptions.*;
+import gr.aueb.cf.tourapp.core.filters.BookingFilters;
+import gr.aueb.cf.tourapp.core.filters.Paginated;
+import gr.aueb.cf.tourapp.dto.BookingBulkInsertDTO;
 import gr.aueb.cf.tourapp.dto.BookingInsertDTO;
 import gr.aueb.cf.tourapp.dto.BookingReadOnlyDTO;
 import gr.aueb.cf.tourapp.service.BookingService;
+import gr.aueb.cf.tourapp.service.ExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.annotation.Nullable;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -29,6 +39,7 @@ public class BookingRestController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BookingRestController.class);
     private final BookingService bookingService;
+    private final ExportService exportService;
 
     @Operation(
             summary = "Save a booking",
@@ -68,6 +79,47 @@ public class BookingRestController {
 
     }
 
+    @Operation(
+            summary = "Save several bookings of the customer at once",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Bookings inserted",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = BookingReadOnlyDTO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "409",
+                            description = "The customer has already booked a tour on one of the dates",
+                            content = @Content
+                    )
+            }
+    )
+    @PostMapping("/customers/bookings/bulk")
+    public ResponseEntity<List<BookingReadOnlyDTO>> saveBookings(
+            @Valid @RequestBody BookingBulkInsertDTO dto,
+            BindingResult bindingResult
+            ) throws AppObjectAlreadyExistsException, AppObjectNotAuthorizedException, AppObjectInvalidArgumentException, ValidationException {
+
+        if (bindingResult.hasErrors()) {
+            LOGGER.warn("The bookings could not be inserted", bindingResult);
+            throw new ValidationException(bindingResult);
+        }
+
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+
+        try {
+            List<BookingReadOnlyDTO> bookingReadOnlyDTOs = bookingService.saveBookings(dto.getBookings(), username);
+            LOGGER.info("Bookings saved: {}", bookingReadOnlyDTOs.size());
+            return new ResponseEntity<>(bookingReadOnlyDTOs, HttpStatus.OK);
+        } catch (Exception e) {
+            LOGGER.error("Error while saving bookings", e);
+            throw e;
+        }
+    }
+
     @Operation(
             summary = "Update the booking after guide found",
             responses = {
@@ -78,6 +130,11 @@ public class BookingRestController {
                                     mediaType = "application/json",
                                     schema = @Schema(implementation = BookingReadOnlyDTO.class)
                             )
+                    ),
+                    @ApiResponse(
+                            responseCode = "409",
+                            description = "Booking already claimed or guide already booked on that date",
+                            content = @Content
                     )
             }
     )
@@ -262,12 +319,49 @@ public class BookingRestController {
             }
     )
     @GetMapping("/bookings/paginated")
-    public ResponseEntity<Page<BookingReadOnlyDTO>> getPaginatedBookings(@RequestParam(defaultValue = "0") int page,
-                                                                     @RequestParam(defaultValue = "10") int size) {
-        Page<BookingReadOnlyDTO> bookingsPage = bookingService.getPaginatedBookings(page, size);
+    public ResponseEntity<Paginated<BookingReadOnlyDTO>> getPaginatedBookings(@RequestParam(defaultValue = "0") int page,
+                                                                          @RequestParam(defaultValue = "10") int size,
+                                                                          @RequestParam(required = false) String cursor,
+                                                                          @RequestParam(defaultValue = "EXACT") CountMode count)
+            throws AppObjectInvalidArgumentException {
+        Paginated<BookingReadOnlyDTO> bookingsPage = bookingService.getPaginatedBookings(page, size, cursor, count);
         return new ResponseEntity<>(bookingsPage, HttpStatus.OK);
     }
 
+    @Operation(
+            summary = "Get filtered and paginated bookings",
+            security = @SecurityRequirement(name = "Bearer Authentication"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Booking Found",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = BookingReadOnlyDTO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Unauthorized",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Access Denied",
+                            content = @Content
+                    )
+            }
+    )
+    @PostMapping("/bookings/filtered/paginated")
+    public ResponseEntity<Paginated<BookingReadOnlyDTO>> getPaginatedFilteredBookings(
+            @Nullable @RequestBody(required = false) BookingFilters filters
+    ) throws AppObjectInvalidArgumentException {
+
+        if (filters == null) filters = new BookingFilters();
+        Paginated<BookingReadOnlyDTO> paginatedBookings = bookingService.getBookingsFilteredPaginated(filters);
+        return new ResponseEntity<>(paginatedBookings, HttpStatus.OK);
+    }
+
     @Operation(
             summary = "Delete a booking",
             responses = {
@@ -297,4 +391,34 @@ public class BookingRestController {
             throw e;
         }
     }
+
+    @Operation(
+            summary = "Export all bookings as NDJSON or CSV",
+            security = @SecurityRequirement(name = "Bearer Authentication"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Bookings exported",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Unauthorized",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Access Denied",
+                            content = @Content
+                    )
+            }
+    )
+    @GetMapping("/bookings/export")
+    public void exportBookings(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                               HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings." + format.getExtension() + "\"");
+        exportService.exportBookings(format, response.getOutputStream());
+    }
 }
@@ -1,27 +1,36 @@
 package gr.aueb.cf.tourapp.rest;
 
+import gr.aueb.cf.tourapp.core.enums.CountMode;
+import gr.aueb.cf.tourapp.core.enums.ExportFormat;
 import gr.aueb.cf.tourapp.core.exceptions.*;
 import gr.aueb.cf.tourapp.core.filters.CustomerFilters;
 import gr.aueb.cf.tourapp.core.filters.Paginated;
 import gr.aueb.cf.tourapp.dto.CustomerInsertDTO;
 import gr.aueb.cf.tourapp.dto.CustomerReadOnlyDTO;
+import gr.aueb.cf.tourapp.dto.RegistrationResultDTO;
 import gr.aueb.cf.tourapp.service.CustomerService;
+import gr.aueb.cf.tourapp.service.ExportService;
+import gr.aueb.cf.tourapp.service.RegistrationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.annotation.Nullable;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
 import java.util.List;
 
@@ -32,6 +41,8 @@ public class CustomerRestController {
 
     private final static Logger LOGGER = LoggerFactory.getLogger(CustomerRestController.class);
     private final CustomerService customerService;
+    private final ExportService exportService;
+    private final RegistrationService registrationService;
 
     @Operation(
             summary = "Save a customer",
@@ -58,6 +69,40 @@ public class CustomerRestController {
         return new ResponseEntity<>(customerReadOnlyDTO, HttpStatus.OK);
     }
 
+    @Operation(
+            summary = "Register customers in bulk from a CSV or JSON upload",
+            security = @SecurityRequirement(name = "Bearer Authentication"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "One result per row",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = RegistrationResultDTO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Unauthorized",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Access Denied",
+                            content = @Content
+                    )
+            }
+    )
+    @PostMapping(value = "/customers/bulk", consumes = {"text/csv", "application/json", "application/x-ndjson"})
+    public ResponseEntity<List<RegistrationResultDTO>> registerCustomers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            HttpServletRequest request) throws IOException {
+
+        List<RegistrationResultDTO> results = registrationService.registerCustomers(
+                ExportFormat.forContentType(contentType), request.getInputStream());
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
     @Operation(
             summary = "Get all customers ",
             security = @SecurityRequirement(name = "Bearer Authentication"),
@@ -114,12 +159,14 @@ public class CustomerRestController {
             }
     )
     @GetMapping("/customers/paginated")
-    public ResponseEntity<Page<CustomerReadOnlyDTO>> getPaginatedCustomers(
+    public ResponseEntity<Paginated<CustomerReadOnlyDTO>> getPaginatedCustomers(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "0") int size
-    ) throws AppObjectNotFoundException, AppServerException {
+            @RequestParam(defaultValue = "0") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "EXACT") CountMode count
+    ) throws AppObjectNotFoundException, AppObjectInvalidArgumentException, AppServerException {
 
-        Page<CustomerReadOnlyDTO> paginatedCustomers = customerService.getPaginatedCustomers(page, size);
+        Paginated<CustomerReadOnlyDTO> paginatedCustomers = customerService.getPaginatedCustomers(page, size, cursor, count);
         return new ResponseEntity<>(paginatedCustomers, HttpStatus.OK);
     }
 
@@ -191,4 +238,33 @@ public class CustomerRestController {
         return new ResponseEntity<>(paginatedCustomers, HttpStatus.OK);
     }
 
+    @Operation(
+            summary = "Export all customers as NDJSON or CSV",
+            security = @SecurityRequirement(name = "Bearer Authentication"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Customers exported",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Unauthorized",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Access Denied",
+                            content = @Content
+                    )
+            }
+    )
+    @GetMapping("/customers/export")
+    public void exportCustomers(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                                HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"customers." + format.getExtension() + "\"");
+        exportService.exportCustomers(format, response.getOutputStream());
+    }
 }
@@ -1,27 +1,36 @@
 package gr.aueb.cf.tourapp.rest;
 
+import gr.aueb.cf.tourapp.core.enums.CountMode;
+import gr.aueb.cf.tourapp.core.enums.ExportFormat;
 import gr.aueb.cf.tourapp.core.exceptions.*;
 import gr.aueb.cf.tourapp.core.filters.GuideFilters;
 import gr.aueb.cf.tourapp.core.filters.Paginated;
 import gr.aueb.cf.tourapp.dto.GuideInsertDTO;
 import gr.aueb.cf.tourapp.dto.GuideReadOnlyDTO;
+import gr.aueb.cf.tourapp.dto.RegistrationResultDTO;
+import gr.aueb.cf.tourapp.service.ExportService;
 import gr.aueb.cf.tourapp.service.GuideService;
+import gr.aueb.cf.tourapp.service.RegistrationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.annotation.Nullable;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
 import java.util.List;
 
@@ -32,6 +41,8 @@ public class GuideRestController {
 
     private final static Logger LOGGER = LoggerFactory.getLogger(GuideRestController.class);
     private final GuideService guideService;
+    private final ExportService exportService;
+    private final RegistrationService registrationService;
 
     @Operation(
             summary = "Save a guide",
@@ -62,6 +73,40 @@ public class GuideRestController {
         return new ResponseEntity<>(guideReadOnlyDTO, HttpStatus.OK);
     }
 
+    @Operation(
+            summary = "Register guides in bulk from a CSV or JSON upload",
+            security = @SecurityRequirement(name = "Bearer Authentication"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "One result per row",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = RegistrationResultDTO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Unauthorized",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Access Denied",
+                            content = @Content
+                    )
+            }
+    )
+    @PostMapping(value = "/guides/bulk", consumes = {"text/csv", "application/json", "application/x-ndjson"})
+    public ResponseEntity<List<RegistrationResultDTO>> registerGuides(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            HttpServletRequest request) throws IOException {
+
+        List<RegistrationResultDTO> results = registrationService.registerGuides(
+                ExportFormat.forContentType(contentType), request.getInputStream());
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
     @Operation(
             summary = "Get all guides",
             security = @SecurityRequirement(name = "Bearer Authentication"),
@@ -117,9 +162,12 @@ public class GuideRestController {
             }
     )
     @GetMapping("/guides/paginated")
-    public ResponseEntity<Page<GuideReadOnlyDTO>> getPaginatedGuides(@RequestParam(defaultValue = "0") int page,
-                                                                       @RequestParam(defaultValue = "10") int size) {
-        Page<GuideReadOnlyDTO> guidesPage = guideService.getPaginatedGuides(page, size);
+    public ResponseEntity<Paginated<GuideReadOnlyDTO>> getPaginatedGuides(@RequestParam(defaultValue = "0") int page,
+                                                                            @RequestParam(defaultValue = "10") int size,
+                                                                            @RequestParam(required = false) String cursor,
+                                                                            @RequestParam(defaultValue = "EXACT") CountMode count)
+            throws AppObjectInvalidArgumentException {
+        Paginated<GuideReadOnlyDTO> guidesPage = guideService.getPaginatedGuides(page, size, cursor, count);
         return new ResponseEntity<>(guidesPage, HttpStatus.OK);
     }
 
@@ -200,4 +248,33 @@ public class GuideRestController {
         }
     }
 
+    @Operation(
+            summary = "Export all guides as NDJSON or CSV",
+            security = @SecurityRequirement(name = "Bearer Authentication"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Guides exported",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Unauthorized",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Access Denied",
+                            content = @Content
+                    )
+            }
+    )
+    @GetMapping("/guides/export")
+    public void exportGuides(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                             HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"guides." + format.getExtension() + "\"");
+        exportService.exportGuides(format, response.getOutputStream());
+    }
 }
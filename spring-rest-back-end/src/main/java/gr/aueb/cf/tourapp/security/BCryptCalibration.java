@@ -0,0 +1,54 @@
+package gr.aueb.cf.tourapp.security;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+
+public final class BCryptCalibration {
+
+    public static final int MIN_STRENGTH = 10;
+    public static final int MAX_STRENGTH = 14;
+    private static final int PROBE_STRENGTH = 8;
+
+    private BCryptCalibration() {
+
+    }
+
+    /**
+     * Highest cost (within the allowed range) whose hash takes no longer than the target on this
+     * machine. Each cost step doubles the work, so a cheap probe is timed and extrapolated.
+     */
+    public static int strengthFor(Duration target) {
+        String salt = BCrypt.gensalt(PROBE_STRENGTH);
+        BCrypt.hashpw("warm-up", salt);
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration", salt);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        int strength = PROBE_STRENGTH;
+        long estimate = best;
+        while (strength < MAX_STRENGTH && estimate * 2 <= target.toNanos()) {
+            estimate *= 2;
+            strength++;
+        }
+        return Math.max(strength, MIN_STRENGTH);
+    }
+
+    /**
+     * Cost of a {@code $2a$NN$...} hash, optionally behind a {@code {bcrypt}} prefix, or -1.
+     */
+    public static int strengthOf(String encodedPassword) {
+        if (encodedPassword == null) return -1;
+        String hash = encodedPassword.startsWith("{") ? encodedPassword.substring(encodedPassword.indexOf('}') + 1) : encodedPassword;
+        if (hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$') return -1;
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
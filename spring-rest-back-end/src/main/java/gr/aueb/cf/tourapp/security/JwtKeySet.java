@@ -0,0 +1,163 @@
+package gr.aueb.cf.tourapp.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.*;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Signing and verification keys for the JWTs. With HS256 every node holds the shared secret.
+ * With RS256 the tokens carry a {@code kid} header and are verified with the matching public key
+ * from {@code app.jwt.keys.dir} ({@code <kid>.pub.pem}); only the issuing nodes need the private
+ * key of the active kid ({@code <kid>.pem}). The directory is read again the first time a token
+ * with an unknown kid shows up, at most once per {@code app.jwt.keys.reload-interval}: new public
+ * keys are picked up and removed ones stop verifying.
+ */
+@Component
+public class JwtKeySet extends SigningKeyResolverAdapter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JwtKeySet.class);
+
+    private final SignatureAlgorithm algorithm;
+    private final Path keysDir;
+    private final String activeKeyId;
+    private final Key hmacKey;
+    private final long reloadInterval;
+    private volatile Map<String, PublicKey> publicKeys = Map.of();
+    private volatile PrivateKey signingKey;
+    private volatile long lastReload;
+
+    public JwtKeySet(@Value("${app.jwt.algorithm:HS256}") SignatureAlgorithm algorithm,
+                     @Value("${app.jwt.secret:5ce98d378ec88ea09ba8bcd511ef23645f04cc8e70b9134b98723a53c275bbc5}") String secret,
+                     @Value("${app.jwt.keys.dir:}") String keysDir,
+                     @Value("${app.jwt.keys.active-kid:}") String activeKeyId,
+                     @Value("${app.jwt.keys.reload-interval:PT30S}") Duration reloadInterval) {
+        if (algorithm != SignatureAlgorithm.HS256 && algorithm != SignatureAlgorithm.RS256) {
+            throw new IllegalArgumentException("Unsupported JWT algorithm " + algorithm);
+        }
+        this.algorithm = algorithm;
+        this.hmacKey = algorithm == SignatureAlgorithm.HS256 ? Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)) : null;
+        this.keysDir = keysDir.isBlank() ? null : Path.of(keysDir);
+        this.activeKeyId = activeKeyId.isBlank() ? "ephemeral" : activeKeyId;
+        this.reloadInterval = reloadInterval.toMillis();
+
+        if (algorithm == SignatureAlgorithm.RS256) {
+            if (this.keysDir == null) {
+                generateEphemeralKey();
+            } else {
+                reload();
+            }
+        }
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getSigningKeyId() {
+        return algorithm == SignatureAlgorithm.HS256 ? null : activeKeyId;
+    }
+
+    public Key getSigningKey() {
+        if (algorithm == SignatureAlgorithm.HS256) return hmacKey;
+        if (signingKey == null) {
+            throw new IllegalStateException("No private key for kid " + activeKeyId + " in " + keysDir
+                    + ", this node can only verify tokens");
+        }
+        return signingKey;
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        if (algorithm == SignatureAlgorithm.HS256) {
+            if (!SignatureAlgorithm.HS256.getValue().equals(header.getAlgorithm())) {
+                throw new SignatureException("Unexpected JWT algorithm " + header.getAlgorithm());
+            }
+            return hmacKey;
+        }
+
+        if (!SignatureAlgorithm.RS256.getValue().equals(header.getAlgorithm()) || header.getKeyId() == null) {
+            throw new SignatureException("JWT must be RS256 signed and carry a kid");
+        }
+        PublicKey key = publicKeys.get(header.getKeyId());
+        if (key == null && keysDir != null && System.currentTimeMillis() - lastReload >= reloadInterval) {
+            reload();
+            key = publicKeys.get(header.getKeyId());
+        }
+        if (key == null) throw new SignatureException("Unknown JWT kid " + header.getKeyId());
+        return key;
+    }
+
+    /**
+     * Reads the public keys from the directory into a new map and swaps it in, so a lookup sees
+     * either the old or the new set. The public key of the active kid is kept even if its file is
+     * gone, since this node keeps signing with it.
+     */
+    public synchronized void reload() {
+        lastReload = System.currentTimeMillis();
+        Map<String, PublicKey> loaded = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(keysDir, "*.pem")) {
+            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".pub.pem")) {
+                    String kid = name.substring(0, name.length() - ".pub.pem".length());
+                    loaded.put(kid, keyFactory.generatePublic(new X509EncodedKeySpec(readPem(file))));
+                } else if (name.equals(activeKeyId + ".pem")) {
+                    signingKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(readPem(file)));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read JWT keys from " + keysDir, e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid JWT key in " + keysDir, e);
+        }
+        PublicKey active = publicKeys.get(activeKeyId);
+        if (active != null && !loaded.containsKey(activeKeyId)) {
+            LOGGER.warn("Public key of the active kid {} is missing from {}, keeping the loaded one", activeKeyId, keysDir);
+            loaded.put(activeKeyId, active);
+        }
+        publicKeys = Map.copyOf(loaded);
+        LOGGER.info("Loaded JWT public keys {}", publicKeys.keySet());
+    }
+
+    private void generateEphemeralKey() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            KeyPair keyPair = generator.generateKeyPair();
+            publicKeys = Map.of(activeKeyId, keyPair.getPublic());
+            signingKey = keyPair.getPrivate();
+            LOGGER.warn("No app.jwt.keys.dir configured, signing with an ephemeral RSA key that other nodes cannot verify");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] readPem(Path file) throws IOException {
+        String pem = Files.readString(file)
+                .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+                .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(pem);
+    }
+}
@@ -1,47 +1,99 @@
 package gr.aueb.cf.tourapp.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
-    private String secretKey = "5ce98d378ec88ea09ba8bcd511ef23645f04cc8e70b9134b98723a53c275bbc5";
     private long jwtExpiration = 3600000;
 
+    private final JwtKeySet keySet;
+    private final JwtParser parser;
+    private final long verifiedCacheTtl;
+    private final Map<ByteBuffer, VerifiedToken> verifiedTokens;
+
+    public JwtService(JwtKeySet keySet,
+                      @Value("${app.jwt.verified-cache.max-size:10000}") int verifiedCacheSize,
+                      @Value("${app.jwt.verified-cache.ttl:PT1M}") Duration verifiedCacheTtl) {
+        this.keySet = keySet;
+        // Parsers are immutable and thread-safe, so one instance serves every request; the key set picks the key per kid
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(keySet).build();
+        this.verifiedCacheTtl = verifiedCacheTtl.toMillis();
+        this.verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ByteBuffer, VerifiedToken> eldest) {
+                return size() > verifiedCacheSize;
+            }
+        };
+    }
+
     public String generateToken(String username, String role) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", role);
 
         return Jwts
                 .builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keySet.getSigningKeyId())
                 .setIssuer("self") // todo
                 .setClaims(claims)
                 .setSubject(username)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(keySet.getSigningKey(), keySet.getAlgorithm())
                 .compact();
     }
 
+    /**
+     * Parses the token and checks its signature and expiry once. Recently verified tokens are
+     * served from a bounded cache until they expire. The returned claims must not be modified.
+     */
+    public Claims verify(String token) {
+        ByteBuffer key = hash(token);
+        long now = System.currentTimeMillis();
+
+        synchronized (verifiedTokens) {
+            VerifiedToken cached = verifiedTokens.get(key);
+            if (cached != null && cached.validUntil() > now) return cached.claims();
+            if (cached != null) verifiedTokens.remove(key);
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        long validUntil = now + verifiedCacheTtl;
+        if (claims.getExpiration() != null) validUntil = Math.min(validUntil, claims.getExpiration().getTime());
+
+        synchronized (verifiedTokens) {
+            verifiedTokens.put(key, new VerifiedToken(claims, validUntil));
+        }
+        return claims;
+    }
+
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String subject = extractSubject(token);
-        return !isTokenExpired(token) && (subject.equals(userDetails.getUsername()));
+        return isTokenValid(verify(token), userDetails);
+    }
+
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return !isTokenExpired(claims) && (claims.getSubject().equals(userDetails.getUsername()));
     }
 
     public String getStringClaim(String token, String claim) {
-        return extractAllClaims(token).get(claim, String.class);
+        return verify(token).get(claim, String.class);
     }
 
     public String extractSubject(String token) {
@@ -49,29 +101,22 @@ public class JwtService {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verify(token);
         return claimsResolver.apply(claims);
     }
 
-    private Date extractExpirationDate(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpirationDate(token).before(new Date());
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private static ByteBuffer hash(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private record VerifiedToken(Claims claims, long validUntil) {
     }
 }
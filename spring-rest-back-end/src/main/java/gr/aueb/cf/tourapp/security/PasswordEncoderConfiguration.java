@@ -0,0 +1,59 @@
+package gr.aueb.cf.tourapp.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration
+public class PasswordEncoderConfiguration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordEncoderConfiguration.class);
+    private static final String BCRYPT = "bcrypt";
+
+    @Bean
+    @Primary
+    public ThrottledPasswordEncoder passwordEncoder(@Value("${app.password.bcrypt.strength:0}") int configuredStrength,
+                                                    @Value("${app.password.target-hash-time:PT0.05S}") Duration targetHashTime,
+                                                    @Value("${app.password.max-concurrent:0}") int maxConcurrent,
+                                                    @Value("${app.password.bulk-max-concurrent:0}") int bulkMaxConcurrent,
+                                                    @Value("${app.password.max-queued:64}") int maxQueued,
+                                                    @Value("${app.password.queue-timeout:PT2S}") Duration queueTimeout) {
+        int strength = configuredStrength > 0 ? configuredStrength : BCryptCalibration.strengthFor(targetHashTime);
+        int permits = maxConcurrent > 0 ? maxConcurrent : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        int bulkPermits = bulkMaxConcurrent > 0 ? Math.min(bulkMaxConcurrent, permits) : Math.max(1, permits / 2);
+        LOGGER.info("Hashing passwords with BCrypt cost {} and at most {} concurrent hashes, {} of them for bulk work",
+                strength, permits, bulkPermits);
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt)) {
+            // Rehash on login only when the stored cost is below the current one; a node that calibrates
+            // lower than its peers must not weaken the hashes they wrote
+            @Override
+            public boolean upgradeEncoding(String prefixEncodedPassword) {
+                return super.upgradeEncoding(prefixEncodedPassword)
+                        || BCryptCalibration.strengthOf(prefixEncodedPassword) < strength;
+            }
+        };
+        // Hashes stored before the {bcrypt} prefix was introduced
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return new ThrottledPasswordEncoder(delegating, permits, bulkPermits, maxQueued, queueTimeout);
+    }
+
+    /**
+     * For registration uploads, which must not take the permits the logins need.
+     */
+    @Bean
+    public PasswordEncoder registrationPasswordEncoder(ThrottledPasswordEncoder passwordEncoder) {
+        return passwordEncoder.bulk();
+    }
+}
@@ -1,5 +1,6 @@
 package gr.aueb.cf.tourapp.security;
 
+import gr.aueb.cf.tourapp.authentication.CustomUserDetailsService;
 import gr.aueb.cf.tourapp.authentication.JwtAuthenticationFilter;
 import gr.aueb.cf.tourapp.core.enums.Role;
 import lombok.RequiredArgsConstructor;
@@ -13,8 +14,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
@@ -32,7 +31,8 @@ import java.util.List;
 public class SecurityConfiguration {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
-    private final UserDetailsService userDetailsService;
+    private final CustomUserDetailsService userDetailsService;
+    private final PasswordEncoder passwordEncoder;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -43,9 +43,14 @@ public class SecurityConfiguration {
                 .exceptionHandling(exceptions -> exceptions.accessDeniedHandler(myCustomAccessDeniedHandler()))
                 .authorizeHttpRequests(req -> req
                         .requestMatchers("/api/guides/save").permitAll()
+                        .requestMatchers("/api/admin/**").hasAnyAuthority(Role.ADMIN.name())
                         .requestMatchers("/api/bookings").hasAnyAuthority(Role.GUIDE.name(), Role.ADMIN.name())
+                        .requestMatchers("/api/bookings/filtered/**").hasAnyAuthority(Role.ADMIN.name())
+                        .requestMatchers("/api/bookings/export", "/api/customers/export", "/api/guides/export")
+                        .hasAnyAuthority(Role.ADMIN.name())
+                        .requestMatchers("/api/customers/bulk", "/api/guides/bulk").hasAnyAuthority(Role.ADMIN.name())
                         .requestMatchers("/api/customers/save").permitAll()
-                        .requestMatchers("/api/auth/authenticate").permitAll()
+                        .requestMatchers("/api/auth/authenticate", "/api/auth/refresh", "/api/auth/logout").permitAll()
                         .requestMatchers("/api/guides/**").hasAnyAuthority(Role.GUIDE.name(), Role.ADMIN.name())
                         .requestMatchers("/api/customers/**").hasAnyAuthority(Role.CUSTOMER.name())
                         .requestMatchers("/**").permitAll()
@@ -73,15 +78,11 @@ public class SecurityConfiguration {
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsService);
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(11);
-    }
-
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config)
             throws Exception {
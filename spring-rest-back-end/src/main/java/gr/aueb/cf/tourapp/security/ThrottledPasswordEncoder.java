@@ -0,0 +1,135 @@
+package gr.aueb.cf.tourapp.security;
+
+import gr.aueb.cf.tourapp.core.exceptions.AppServiceBusyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many password hashes run at once. Callers beyond the limit wait in a bounded queue
+ * for at most the configured timeout, so a login burst cannot take every core from the rest
+ * of the API. Bulk work such as registration uploads goes through {@link #bulk()}, which holds at
+ * most a fixed share of the permits so that logins always keep the rest.
+ */
+public class ThrottledPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Semaphore permits;
+    private final Semaphore bulkPermits;
+    private final int maxQueued;
+    private final long timeoutNanos;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final PasswordEncoder bulk = new BulkPasswordEncoder();
+
+    public ThrottledPasswordEncoder(PasswordEncoder delegate, int maxConcurrent, int maxBulk, int maxQueued, Duration timeout) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.bulkPermits = new Semaphore(Math.min(maxBulk, maxConcurrent), true);
+        this.maxQueued = maxQueued;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return throttled(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return throttled(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * The same encoder for bulk work. Its callers wait for their share without a queue limit or
+     * timeout, and then take their turn in the same fair queue as the logins.
+     */
+    public PasswordEncoder bulk() {
+        return bulk;
+    }
+
+    /**
+     * Callers currently waiting for a permit.
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    private <T> T throttled(Supplier<T> work) {
+        try {
+            // The timed form honours the fair queue; the untimed tryAcquire() would barge past it
+            if (!permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                if (queued.incrementAndGet() > maxQueued) {
+                    queued.decrementAndGet();
+                    throw busy();
+                }
+                try {
+                    if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) throw busy();
+                } finally {
+                    queued.decrementAndGet();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw busy();
+        }
+
+        try {
+            return work.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private <T> T bulkThrottled(Supplier<T> work) {
+        try {
+            bulkPermits.acquire();
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                bulkPermits.release();
+                throw e;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw busy();
+        }
+
+        try {
+            return work.get();
+        } finally {
+            permits.release();
+            bulkPermits.release();
+        }
+    }
+
+    private static AppServiceBusyException busy() {
+        return new AppServiceBusyException("Authentication", "Too many concurrent password checks, try again shortly");
+    }
+
+    private class BulkPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return bulkThrottled(() -> delegate.encode(rawPassword));
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return bulkThrottled(() -> delegate.matches(rawPassword, encodedPassword));
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return delegate.upgradeEncoding(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package gr.aueb.cf.tourapp.service;
+
+import gr.aueb.cf.tourapp.model.Booking;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Business counters next to the request and query timings: bookings saved, guides claiming a
+ * booking, and the requests turned away by one of the booking unique constraints.
+ */
+@Component
+public class BookingMetrics {
+
+    private final Counter saved;
+    private final Counter claimed;
+    private final Counter customerDateConflicts;
+    private final Counter guideDateConflicts;
+    private final Counter alreadyClaimedConflicts;
+
+    public BookingMetrics(MeterRegistry meterRegistry) {
+        this.saved = Counter.builder("app.bookings.saved")
+                .description("Bookings inserted, one by one or in bulk")
+                .register(meterRegistry);
+        this.claimed = Counter.builder("app.bookings.guide.claims")
+                .description("Bookings claimed by a guide")
+                .register(meterRegistry);
+        this.customerDateConflicts = conflicts(meterRegistry, Booking.CUSTOMER_DATE_CONSTRAINT);
+        this.guideDateConflicts = conflicts(meterRegistry, Booking.GUIDE_DATE_CONSTRAINT);
+        this.alreadyClaimedConflicts = conflicts(meterRegistry, "already_claimed");
+    }
+
+    public void saved(int bookings) {
+        saved.increment(bookings);
+    }
+
+    public void claimed() {
+        claimed.increment();
+    }
+
+    public void customerDateConflict() {
+        customerDateConflicts.increment();
+    }
+
+    public void guideDateConflict() {
+        guideDateConflicts.increment();
+    }
+
+    public void alreadyClaimedConflict() {
+        alreadyClaimedConflicts.increment();
+    }
+
+    private static Counter conflicts(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("app.bookings.conflicts")
+                .description("Booking saves and guide claims rejected by a conflicting booking")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -1,27 +1,35 @@
 package gr.aueb.cf.tourapp.service;
 
+import gr.aueb.cf.tourapp.authentication.UserIdentityService;
+import gr.aueb.cf.tourapp.core.enums.CountMode;
 import gr.aueb.cf.tourapp.core.exceptions.AppObjectAlreadyExistsException;
 import gr.aueb.cf.tourapp.core.exceptions.AppObjectInvalidArgumentException;
+import gr.aueb.cf.tourapp.core.exceptions.AppObjectNotAuthorizedException;
 import gr.aueb.cf.tourapp.core.exceptions.AppObjectNotFoundException;
+import gr.aueb.cf.tourapp.core.filters.BookingFilters;
+import gr.aueb.cf.tourapp.core.filters.CountCache;
+import gr.aueb.cf.tourapp.core.filters.Paginated;
 import gr.aueb.cf.tourapp.core.specifications.BookingSpecification;
+import gr.aueb.cf.tourapp.core.specifications.KeysetSpecification;
 import gr.aueb.cf.tourapp.dto.BookingInsertDTO;
 import gr.aueb.cf.tourapp.dto.BookingReadOnlyDTO;
 import gr.aueb.cf.tourapp.mapper.Mapper;
 import gr.aueb.cf.tourapp.model.Booking;
 import gr.aueb.cf.tourapp.repository.*;
+import gr.aueb.cf.tourapp.repository.projections.BookingProjection;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,49 +39,91 @@ public class BookingService {
     private final static Logger LOGGER = LoggerFactory.getLogger(BookingService.class);
     private final BookingRepository bookingRepository;
     private final Mapper mapper;
-    private final UserRepository userRepository;
+    private final GuideRepository guideRepository;
+    private final UserIdentityService userIdentityService;
+    private final CountCache countCache;
+    private final BookingMetrics bookingMetrics;
 
     @Transactional(rollbackOn = {Exception.class})
     public BookingReadOnlyDTO saveBooking(BookingInsertDTO insertDTO, String username)
             throws AppObjectAlreadyExistsException, AppObjectInvalidArgumentException {
 
-        LocalDate dateToBeChecked = insertDTO.getBookingDate();
+        customerIdOf(username);
+        Booking bookingToBeInserted = mapper.mapToBookingEntity(insertDTO, username);
 
-        Specification<Booking> specs = Specification
-                .where(BookingSpecification.bookingDateIs(dateToBeChecked))
-                .and(BookingSpecification.bookingCustomerIdIs(userRepository.findByUsername(username).get().getCustomer().getId()));
+        // The unique (customer_id, booking_date) index decides, so concurrent requests cannot both pass a check
+        Booking booking;
+        try {
+            booking = bookingRepository.saveAndFlush(bookingToBeInserted);
+        } catch (DataIntegrityViolationException e) {
+            if (!violates(e, Booking.CUSTOMER_DATE_CONSTRAINT)) throw e;
+            bookingMetrics.customerDateConflict();
+            throw new AppObjectAlreadyExistsException("Booking", "The customer with username " +
+                    username + " has already booked a tour on " + insertDTO.getBookingDate());
+        }
+        countCache.evict(Booking.class);
+        bookingMetrics.saved(1);
+        return findBookingById(booking.getId());
+    }
+
+    /**
+     * Inserts the bookings of one customer, all or none, in a single JDBC batch.
+     */
+    @Transactional(rollbackOn = {Exception.class})
+    public List<BookingReadOnlyDTO> saveBookings(List<BookingInsertDTO> insertDTOs, String username)
+            throws AppObjectAlreadyExistsException, AppObjectInvalidArgumentException {
+
+        customerIdOf(username);
+        if (insertDTOs.stream().map(BookingInsertDTO::getBookingDate).distinct().count() < insertDTOs.size()) {
+            throw new AppObjectInvalidArgumentException("Booking", "A customer can book only one tour per date");
+        }
+        List<Booking> bookings = new ArrayList<>(insertDTOs.size());
+        for (BookingInsertDTO insertDTO : insertDTOs) {
+            bookings.add(mapper.mapToBookingEntity(insertDTO, username));
+        }
 
-        if (!bookingRepository.findAll(specs).isEmpty()) {
+        try {
+            bookingRepository.insertAll(bookings);
+        } catch (DataIntegrityViolationException e) {
+            if (!violates(e, Booking.CUSTOMER_DATE_CONSTRAINT)) throw e;
+            bookingMetrics.customerDateConflict();
             throw new AppObjectAlreadyExistsException("Booking", "The customer with username " +
-                    username + " has already booked a tour on " + dateToBeChecked);
+                    username + " has already booked a tour on one of the dates");
         }
+        countCache.evict(Booking.class);
+        bookingMetrics.saved(bookings.size());
 
-        Booking bookingToBeInserted = mapper.mapToBookingEntity(insertDTO, username);
-        Booking booking = bookingRepository.save(bookingToBeInserted);
-        return mapper.mapToBookingReadOnlyDTO(booking);
+        List<Long> ids = bookings.stream().map(Booking::getId).toList();
+        return bookingRepository.findAllProjected(BookingSpecification.bookingIdIn(ids), Sort.by("bookingDate"))
+                .stream().map(mapper::mapToBookingReadOnlyDTO).collect(Collectors.toList());
     }
 
     @Transactional(rollbackOn = {Exception.class})
     public BookingReadOnlyDTO updateBookingGuide(Long bookingId, String username)
             throws AppObjectNotFoundException, AppObjectAlreadyExistsException, AppObjectInvalidArgumentException {
 
-        Booking bookingToBeUpdated = bookingRepository.findById(bookingId).orElseThrow(() ->
-                new AppObjectNotFoundException("Booking", "Booking with id " + bookingId + " was not found"));
-
-        LocalDate dateToBeChecked = bookingToBeUpdated.getBookingDate();
-
-        Specification<Booking> specs = Specification
-                .where(BookingSpecification.bookingDateIs(dateToBeChecked))
-                .and(BookingSpecification.bookingGuideIdIs(userRepository.findByUsername(username).get().getGuide().getId()));
-
-        if (!bookingRepository.findAll(specs).isEmpty()) {
+        // A single conditional update, so of several guides claiming the same booking exactly one wins
+        int claimed;
+        try {
+            claimed = bookingRepository.claimGuide(bookingId, guideRepository.getReferenceById(guideIdOf(username)));
+        } catch (DataIntegrityViolationException e) {
+            if (!violates(e, Booking.GUIDE_DATE_CONSTRAINT)) throw e;
+            bookingMetrics.guideDateConflict();
             throw new AppObjectAlreadyExistsException("Booking", "The guide with the username " +
-                    username + " has already a booked tour on " + dateToBeChecked);
+                    username + " has already a booked tour on the date of booking " + bookingId);
         }
 
-        bookingToBeUpdated.setGuide(userRepository.findByUsername(username).get().getGuide());
-        Booking updatedBooking = bookingRepository.save(bookingToBeUpdated);
-        return mapper.mapToBookingReadOnlyDTO(updatedBooking);
+        if (claimed == 0) {
+            if (!bookingRepository.existsById(bookingId)) {
+                throw new AppObjectNotFoundException("Booking", "Booking with id " + bookingId + " was not found");
+            }
+            bookingMetrics.alreadyClaimedConflict();
+            throw new AppObjectAlreadyExistsException("Booking", "Booking with id " + bookingId +
+                    " has already been claimed by another guide");
+        }
+        countCache.evict(Booking.class);
+        bookingMetrics.claimed();
+        return findBookingById(bookingId);
     }
 
     @Transactional(rollbackOn = {Exception.class})
@@ -82,48 +132,44 @@ public class BookingService {
 
         Specification<Booking> specs = Specification
                 .where(BookingSpecification.bookingDateGreaterThanToday())
-                .and(BookingSpecification.bookingGuideIdIs(userRepository.findByUsername(username).get().getGuide().getId()));
+                .and(BookingSpecification.bookingGuideIdIs(guideIdOf(username)));
 
-        if (bookingRepository.findAll(specs).isEmpty()) {
+        List<BookingProjection> bookings = bookingRepository.findAllProjected(specs, Sort.unsorted());
+        if (bookings.isEmpty()) {
             throw new AppObjectAlreadyExistsException("Booking", "The guide with the username " +
                     username + " has no upcoming booked tours");
         }
-        List<Booking> bookings = bookingRepository.findAll(specs);
         return bookings.stream().map(mapper::mapToBookingReadOnlyDTO).collect(Collectors.toList());
     }
 
     @Transactional(rollbackOn = Exception.class)
     public void deleteBookingById(Long id, String username) throws AppObjectNotFoundException {
-        List<BookingReadOnlyDTO> currentBookings = findBookingByBookingDateAndCustomerUsername(username);
-        if (currentBookings.isEmpty()) {
-            LOGGER.warn("The booking could not be deleted");
-            throw new AppObjectNotFoundException("Booking", "Current bookings of the customer with username: "
-                    + username + " do not exist");
-        }
         Specification<Booking> specs = Specification
-                .where(BookingSpecification.bookingCustomerIdIs(userRepository.findByUsername(username).get().getCustomer().getId()))
+                .where(BookingSpecification.bookingCustomerIdIs(customerIdOf(username)))
                 .and(BookingSpecification.bookingDateGreaterThanToday())
                 .and(BookingSpecification.bookingIdIs(id));
 
-        if (bookingRepository.findAll(specs).isEmpty()) {
+        if (bookingRepository.delete(specs) == 0) {
             LOGGER.warn("The booking could not be deleted");
             throw new AppObjectNotFoundException("Booking", "Current booking of customer" +
                     "with username " + username + " and with booking id " + id + " was not found");
         }
-        bookingRepository.deleteById(id);
+        countCache.evict(Booking.class);
         LOGGER.info("The booking was successfully deleted");
     }
 
     @Transactional
     public List<BookingReadOnlyDTO> findBookingByBookingDateAndCustomerUsername(String username) throws AppObjectNotFoundException {
         Specification<Booking> specs = Specification
-                .where(BookingSpecification.bookingCustomerIdIs(userRepository.findByUsername(username).get().getCustomer().getId()))
+                .where(BookingSpecification.bookingCustomerIdIs(customerIdOf(username)))
                 .and(BookingSpecification.bookingDateGreaterThanToday());
-        if (bookingRepository.findAll(specs).isEmpty()) {
+
+        List<BookingProjection> bookings = bookingRepository.findAllProjected(specs, Sort.unsorted());
+        if (bookings.isEmpty()) {
             throw new AppObjectNotFoundException("Booking", "Current bookings of the customer with username: "
                     + username + " do not exist");
         }
-        return bookingRepository.findAll(specs).stream().map(mapper::mapToBookingReadOnlyDTO).collect(Collectors.toList());
+        return bookings.stream().map(mapper::mapToBookingReadOnlyDTO).collect(Collectors.toList());
     }
 
     @Transactional
@@ -131,26 +177,95 @@ public class BookingService {
         Specification<Booking> specs = Specification
                 .where(BookingSpecification.bookingDateGreaterThanToday())
                 .and(BookingSpecification.bookingGuideIsNull());
-        if (bookingRepository.findAll(specs).isEmpty()) {
+
+        List<BookingProjection> bookings = bookingRepository.findAllProjected(specs, Sort.unsorted());
+        if (bookings.isEmpty()) {
             throw new AppObjectNotFoundException("Booking", "Available bookings without a guide do not exist");
         }
-        return bookingRepository.findAll(specs).stream().map(mapper::mapToBookingReadOnlyDTO).collect(Collectors.toList());
+        return bookings.stream().map(mapper::mapToBookingReadOnlyDTO).collect(Collectors.toList());
     }
 
     @Transactional
     public List<BookingReadOnlyDTO> getAllBookings() {
-        return bookingRepository.findAll().stream().map(mapper::mapToBookingReadOnlyDTO).collect(Collectors.toList());
+        return bookingRepository.findAllProjected(null, Sort.unsorted()).stream().map(mapper::mapToBookingReadOnlyDTO).collect(Collectors.toList());
     }
 
     @Transactional
-    public Page<BookingReadOnlyDTO> getPaginatedBookings(int page, int pageSize) {
-        Pageable pageable = PageRequest.of(page, pageSize, Sort.by("bookingDate").ascending());
-        return bookingRepository.findAll(pageable).map(mapper::mapToBookingReadOnlyDTO);
+    public Paginated<BookingReadOnlyDTO> getPaginatedBookings(int page, int pageSize, String cursor, CountMode countMode)
+            throws AppObjectInvalidArgumentException {
+        BookingFilters filters = new BookingFilters();
+        filters.setPage(page);
+        filters.setPageSize(pageSize);
+        filters.setSortBy("bookingDate");
+        filters.setCursor(cursor);
+        filters.setCountMode(countMode);
+        return getBookingsFilteredPaginated(filters);
+    }
+
+    @Transactional
+    public Paginated<BookingReadOnlyDTO> getBookingsFilteredPaginated(BookingFilters filters)
+            throws AppObjectInvalidArgumentException {
+        if (filters.isKeyset()) {
+            var sortKey = filters.getKeysetSortKey(BookingProjection.SORT_KEYS);
+            Specification<Booking> specs = getSpecsFromFilters(filters)
+                    .and(KeysetSpecification.after(filters.getKeysetCursor()));
+            var rows = bookingRepository.findAllProjected(specs, filters.getKeysetSort(), filters.getKeysetLimit());
+            return Paginated.ofKeyset(rows, filters, sortKey, BookingProjection::id).map(mapper::mapToBookingReadOnlyDTO);
+        }
+
+        Specification<Booking> specs = getSpecsFromFilters(filters);
+        if (filters.getCountMode() == CountMode.EXACT) {
+            return new Paginated<>(bookingRepository.findAllProjected(specs, filters.getPageable()).map(mapper::mapToBookingReadOnlyDTO));
+        }
+        var slice = bookingRepository.findSliceProjected(specs, filters.getPageable());
+        LongSupplier total = filters.getCountMode() == CountMode.CACHED
+                ? () -> countCache.count(Booking.class, filters, () -> bookingRepository.count(specs))
+                : null;
+        return Paginated.of(slice, total).map(mapper::mapToBookingReadOnlyDTO);
     }
 
     @Transactional
     public BookingReadOnlyDTO findBookingById(Long id) throws AppObjectNotFoundException {
-        return bookingRepository.findById(id).map(mapper::mapToBookingReadOnlyDTO).orElseThrow(() ->
+        return bookingRepository.findAllProjected(BookingSpecification.bookingIdIs(id), Sort.unsorted()).stream()
+                .findFirst().map(mapper::mapToBookingReadOnlyDTO).orElseThrow(() ->
                 new AppObjectNotFoundException("Booking", "Booking with id " + id + " was not found"));
     }
-}
\ No newline at end of file
+
+    private Specification<Booking> getSpecsFromFilters(BookingFilters filters) {
+        return Specification
+                .where(BookingSpecification.bookingDateIs(filters.getBookingDate()))
+                .and(BookingSpecification.bookingPriceLessThan(filters.getPrice()))
+                .and(BookingSpecification.bookingTourCategoryIs(filters.getTourCategory()))
+                .and(BookingSpecification.bookingGuideIdIs(filters.getGuideId()))
+                .and(BookingSpecification.bookingCustomerIdIs(filters.getCustomerId()))
+                .and(BookingSpecification.bookingCustomerLastnameIs(filters.getCustomerLastname()))
+                .and(BookingSpecification.bookingCustomerIsActive(filters.getCustomerIsActive()));
+    }
+
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        // Drivers report the name in their own case and some append the table or index suffix
+        if (e.getCause() instanceof ConstraintViolationException violation) {
+            return violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase().contains(constraint);
+        }
+        // Plain JDBC errors only carry the name in the driver's message
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase().contains(constraint);
+    }
+
+    private Long customerIdOf(String username) throws AppObjectNotAuthorizedException {
+        Long customerId = userIdentityService.resolve(username).customerId();
+        if (customerId == null) {
+            throw new AppObjectNotAuthorizedException("Customer", "User with username " + username + " is not a customer");
+        }
+        return customerId;
+    }
+
+    private Long guideIdOf(String username) throws AppObjectNotAuthorizedException {
+        Long guideId = userIdentityService.resolve(username).guideId();
+        if (guideId == null) {
+            throw new AppObjectNotAuthorizedException("Guide", "User with username " + username + " is not a guide");
+        }
+        return guideId;
+    }
+}
@@ -0,0 +1,40 @@
+package gr.aueb.cf.tourapp.service;
+
+import gr.aueb.cf.tourapp.dto.CacheRegionStatisticsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hit and miss counts of the second-level cache regions since startup, for sizing them in
+ * hibernate-caches.conf.
+ */
+@Service
+public class CacheStatisticsService {
+
+    private final Statistics statistics;
+
+    public CacheStatisticsService(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public List<CacheRegionStatisticsDTO> getRegionStatistics() {
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> toDTO(region, statistics.getCacheRegionStatistics(region)))
+                .toList();
+    }
+
+    private static CacheRegionStatisticsDTO toDTO(String region, CacheRegionStatistics regionStatistics) {
+        long hits = regionStatistics.getHitCount();
+        long misses = regionStatistics.getMissCount();
+        double hitRatio = hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        return new CacheRegionStatisticsDTO(region, hits, misses, regionStatistics.getPutCount(),
+                regionStatistics.getElementCountInMemory(), hitRatio);
+    }
+}
@@ -1,16 +1,20 @@
 package gr.aueb.cf.tourapp.service;
 
+import gr.aueb.cf.tourapp.core.enums.CountMode;
 import gr.aueb.cf.tourapp.core.exceptions.AppObjectAlreadyExistsException;
 import gr.aueb.cf.tourapp.core.exceptions.AppObjectInvalidArgumentException;
+import gr.aueb.cf.tourapp.core.filters.CountCache;
 import gr.aueb.cf.tourapp.core.filters.CustomerFilters;
 import gr.aueb.cf.tourapp.core.filters.Paginated;
 import gr.aueb.cf.tourapp.core.specifications.CustomerSpecification;
+import gr.aueb.cf.tourapp.core.specifications.KeysetSpecification;
 import gr.aueb.cf.tourapp.dto.CustomerInsertDTO;
 import gr.aueb.cf.tourapp.dto.CustomerReadOnlyDTO;
 import gr.aueb.cf.tourapp.mapper.Mapper;
 import gr.aueb.cf.tourapp.model.Customer;
 import gr.aueb.cf.tourapp.repository.CustomerRepository;
 import gr.aueb.cf.tourapp.repository.UserRepository;
+import gr.aueb.cf.tourapp.repository.projections.CustomerProjection;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -23,6 +27,7 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,6 +38,7 @@ public class CustomerService {
     private final CustomerRepository customerRepository;
     private final UserRepository userRepository;
     private final Mapper mapper;
+    private final CountCache countCache;
 
     @Transactional(rollbackOn = {Exception.class})
     public CustomerReadOnlyDTO saveCustomer(CustomerInsertDTO insertDTO)
@@ -45,38 +51,58 @@ public class CustomerService {
 
         Customer customer = mapper.mapToCustomerEntity(insertDTO);
         Customer savedCustomer = customerRepository.save(customer);
+        countCache.evict(Customer.class);
         return mapper.mapToCustomerReadOnlyDTO(savedCustomer);
     }
 
     @Transactional
     public List<CustomerReadOnlyDTO> getAllCustomers() {
-        return customerRepository.findAll().stream().map(mapper::mapToCustomerReadOnlyDTO).collect(Collectors.toList());
+        return customerRepository.findAllProjected(null, Sort.unsorted()).stream().map(mapper::mapToCustomerReadOnlyDTO).collect(Collectors.toList());
     }
 
     @Transactional
-    public Page<CustomerReadOnlyDTO> getPaginatedCustomers(int page, int pageSize) {
-        Sort sort = Sort.by("id");
-        Pageable pageable = PageRequest.of(page, pageSize, sort.ascending());
-        return customerRepository.findAll(pageable).map(mapper::mapToCustomerReadOnlyDTO);
+    public Paginated<CustomerReadOnlyDTO> getPaginatedCustomers(int page, int pageSize, String cursor, CountMode countMode) {
+        CustomerFilters filters = new CustomerFilters();
+        filters.setPage(page);
+        filters.setPageSize(pageSize);
+        filters.setCursor(cursor);
+        filters.setCountMode(countMode);
+        return getCustomersFilteredPaginated(filters);
     }
 
     @Transactional
     public Page<CustomerReadOnlyDTO> getPaginatedSortedCustomers(int page, int pageSize, String sortBy, String sortDirection) {
         Sort sort = Sort.by(Sort.Direction.fromString(sortDirection) ,sortBy);
         Pageable pageable = PageRequest.of(page, pageSize, sort);
-        return customerRepository.findAll(pageable).map(mapper::mapToCustomerReadOnlyDTO);
+        return customerRepository.findAllProjected(null, pageable).map(mapper::mapToCustomerReadOnlyDTO);
     }
 
     @Transactional
     public List<CustomerReadOnlyDTO> getCustomersFiltered(CustomerFilters filters) {
-        var filtered = customerRepository.findAll(getSpecsFromFilters(filters));
+        var filtered = customerRepository.findAllProjected(getSpecsFromFilters(filters), Sort.unsorted());
         return filtered.stream().map(mapper::mapToCustomerReadOnlyDTO).collect(Collectors.toList());
     }
 
     @Transactional
-    public Paginated<CustomerReadOnlyDTO> getCustomersFilteredPaginated(CustomerFilters filters) {
-        var filtered = customerRepository.findAll(getSpecsFromFilters(filters), filters.getPageable());
-        return new Paginated<>(filtered.map(mapper::mapToCustomerReadOnlyDTO));
+    public Paginated<CustomerReadOnlyDTO> getCustomersFilteredPaginated(CustomerFilters filters)
+            throws AppObjectInvalidArgumentException {
+        if (filters.isKeyset()) {
+            var sortKey = filters.getKeysetSortKey(CustomerProjection.SORT_KEYS);
+            Specification<Customer> specs = getSpecsFromFilters(filters)
+                    .and(KeysetSpecification.after(filters.getKeysetCursor()));
+            var rows = customerRepository.findAllProjected(specs, filters.getKeysetSort(), filters.getKeysetLimit());
+            return Paginated.ofKeyset(rows, filters, sortKey, CustomerProjection::id).map(mapper::mapToCustomerReadOnlyDTO);
+        }
+
+        Specification<Customer> specs = getSpecsFromFilters(filters);
+        if (filters.getCountMode() == CountMode.EXACT) {
+            return new Paginated<>(customerRepository.findAllProjected(specs, filters.getPageable()).map(mapper::mapToCustomerReadOnlyDTO));
+        }
+        var slice = customerRepository.findSliceProjected(specs, filters.getPageable());
+        LongSupplier total = filters.getCountMode() == CountMode.CACHED
+                ? () -> countCache.count(Customer.class, filters, () -> customerRepository.count(specs))
+                : null;
+        return Paginated.of(slice, total).map(mapper::mapToCustomerReadOnlyDTO);
     }
 
     private Specification<Customer> getSpecsFromFilters(CustomerFilters filters) {
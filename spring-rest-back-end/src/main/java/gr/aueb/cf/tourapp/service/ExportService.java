@@ -0,0 +1,158 @@
+package gr.aueb.cf.tourapp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import gr.aueb.cf.tourapp.core.enums.ExportFormat;
+import gr.aueb.cf.tourapp.mapper.Mapper;
+import gr.aueb.cf.tourapp.repository.BookingRepository;
+import gr.aueb.cf.tourapp.repository.CustomerRepository;
+import gr.aueb.cf.tourapp.repository.GuideRepository;
+import gr.aueb.cf.tourapp.repository.projections.BookingProjection;
+import gr.aueb.cf.tourapp.repository.projections.CustomerProjection;
+import gr.aueb.cf.tourapp.repository.projections.GuideProjection;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes whole tables to the response row by row. Rows are read from the open result set and
+ * written as they arrive, so memory use does not depend on the table size.
+ */
+@Service
+public class ExportService {
+
+    private static final Sort EXPORT_SORT = Sort.by("id");
+
+    private static final List<Column<BookingProjection>> BOOKING_COLUMNS = List.of(
+            new Column<>("id", BookingProjection::id),
+            new Column<>("bookingDate", BookingProjection::bookingDate),
+            new Column<>("customerId", BookingProjection::customerId),
+            new Column<>("customerFirstname", BookingProjection::customerFirstname),
+            new Column<>("customerLastname", BookingProjection::customerLastname),
+            new Column<>("customerVat", BookingProjection::customerVat),
+            new Column<>("guideId", BookingProjection::guideId),
+            new Column<>("guideFirstname", BookingProjection::guideFirstname),
+            new Column<>("guideLastname", BookingProjection::guideLastname),
+            new Column<>("tourCategory", BookingProjection::tourCategory),
+            new Column<>("tourPrice", BookingProjection::tourPrice));
+
+    private static final List<Column<CustomerProjection>> CUSTOMER_COLUMNS = List.of(
+            new Column<>("id", CustomerProjection::id),
+            new Column<>("uuid", CustomerProjection::uuid),
+            new Column<>("isActive", CustomerProjection::isActive),
+            new Column<>("firstname", CustomerProjection::firstname),
+            new Column<>("lastname", CustomerProjection::lastname),
+            new Column<>("vat", CustomerProjection::vat));
+
+    private static final List<Column<GuideProjection>> GUIDE_COLUMNS = List.of(
+            new Column<>("id", GuideProjection::id),
+            new Column<>("uuid", GuideProjection::uuid),
+            new Column<>("isActive", GuideProjection::isActive),
+            new Column<>("firstname", GuideProjection::firstname),
+            new Column<>("lastname", GuideProjection::lastname),
+            new Column<>("vat", GuideProjection::vat),
+            new Column<>("tourCategory", GuideProjection::tourCategory),
+            new Column<>("tourPrice", GuideProjection::tourPrice));
+
+    private final BookingRepository bookingRepository;
+    private final CustomerRepository customerRepository;
+    private final GuideRepository guideRepository;
+    private final Mapper mapper;
+    private final ObjectWriter jsonWriter;
+    private final int fetchSize;
+
+    public ExportService(BookingRepository bookingRepository,
+                         CustomerRepository customerRepository,
+                         GuideRepository guideRepository,
+                         Mapper mapper,
+                         ObjectMapper objectMapper,
+                         @Value("${app.export.fetch-size:500}") int fetchSize) {
+        this.bookingRepository = bookingRepository;
+        this.customerRepository = customerRepository;
+        this.guideRepository = guideRepository;
+        this.mapper = mapper;
+        // The writer is shared by all rows, so it must neither close nor flush it after each one
+        this.jsonWriter = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.fetchSize = fetchSize;
+    }
+
+    @Transactional
+    public void exportBookings(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<BookingProjection> rows = bookingRepository.streamProjected(null, EXPORT_SORT, fetchSize)) {
+            write(rows, format, BOOKING_COLUMNS, mapper::mapToBookingReadOnlyDTO, out);
+        }
+    }
+
+    @Transactional
+    public void exportCustomers(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<CustomerProjection> rows = customerRepository.streamProjected(null, EXPORT_SORT, fetchSize)) {
+            write(rows, format, CUSTOMER_COLUMNS, mapper::mapToCustomerReadOnlyDTO, out);
+        }
+    }
+
+    @Transactional
+    public void exportGuides(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<GuideProjection> rows = guideRepository.streamProjected(null, EXPORT_SORT, fetchSize)) {
+            write(rows, format, GUIDE_COLUMNS, mapper::mapToGuideReadOnlyDTO, out);
+        }
+    }
+
+    private <P> void write(Stream<P> rows, ExportFormat format, List<Column<P>> columns,
+                           Function<P, ?> toReadOnlyDTO, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        if (format == ExportFormat.CSV) {
+            writeCsvLine(writer, columns.stream().map(Column::header).toList());
+        }
+        for (Iterator<P> it = rows.iterator(); it.hasNext(); ) {
+            P row = it.next();
+            if (format == ExportFormat.CSV) {
+                writeCsvLine(writer, columns.stream().map(column -> column.value().apply(row)).toList());
+            } else {
+                jsonWriter.writeValue(writer, toReadOnlyDTO.apply(row));
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvLine(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) writer.write(',');
+            Object value = values.get(i);
+            if (value != null) writer.write(csvField(value instanceof CharSequence ? neutralised(value.toString()) : value.toString()));
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Text that a spreadsheet would run as a formula is prefixed with a quote, so a name like
+     * {@code =HYPERLINK(...)} opens as text.
+     */
+    private static String neutralised(String value) {
+        if (value.isEmpty() || "=+-@\t\r".indexOf(value.charAt(0)) < 0) return value;
+        return '\'' + value;
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private record Column<P>(String header, Function<P, Object> value) {
+    }
+}
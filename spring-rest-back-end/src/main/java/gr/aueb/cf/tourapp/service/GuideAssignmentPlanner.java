@@ -0,0 +1,61 @@
+package gr.aueb.cf.tourapp.service;
+
+import gr.aueb.cf.tourapp.repository.projections.AssignableBooking;
+import gr.aueb.cf.tourapp.repository.projections.GuideDay;
+import gr.aueb.cf.tourapp.repository.projections.GuideTour;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Assigns guides to bookings in memory. A booking only goes to an active guide of its tour, a guide
+ * gets at most one booking per date, counting the ones already assigned, and among the free guides
+ * the one with the fewest upcoming bookings is picked first.
+ */
+final class GuideAssignmentPlanner {
+
+    private GuideAssignmentPlanner() {
+
+    }
+
+    record Assignment(Long bookingId, Long guideId, LocalDate bookingDate) {
+    }
+
+    static List<Assignment> plan(List<AssignableBooking> bookings, List<GuideTour> guides, List<GuideDay> assigned) {
+        Map<Long, List<Long>> guidesByTour = guides.stream().collect(Collectors.groupingBy(GuideTour::tourId,
+                Collectors.mapping(GuideTour::id, Collectors.toList())));
+        Map<Long, Integer> load = new HashMap<>();
+        Map<LocalDate, Set<Long>> busy = new HashMap<>();
+        for (GuideDay day : assigned) {
+            load.merge(day.guideId(), 1, Integer::sum);
+            busy.computeIfAbsent(day.bookingDate(), date -> new HashSet<>()).add(day.guideId());
+        }
+
+        // Earliest dates first, so the nearest bookings are served before the load evens out
+        Map<LocalDate, Map<Long, List<AssignableBooking>>> byDateAndTour = bookings.stream()
+                .sorted(Comparator.comparing(AssignableBooking::id))
+                .collect(Collectors.groupingBy(AssignableBooking::bookingDate, TreeMap::new,
+                        Collectors.groupingBy(AssignableBooking::tourId)));
+        Comparator<Long> leastLoaded = Comparator.<Long>comparingInt(id -> load.getOrDefault(id, 0))
+                .thenComparing(Comparator.naturalOrder());
+
+        List<Assignment> assignments = new ArrayList<>();
+        byDateAndTour.forEach((date, byTour) -> {
+            Set<Long> busyOnDate = busy.computeIfAbsent(date, d -> new HashSet<>());
+            byTour.forEach((tourId, tourBookings) -> {
+                List<Long> free = guidesByTour.getOrDefault(tourId, List.of()).stream()
+                        .filter(id -> !busyOnDate.contains(id))
+                        .sorted(leastLoaded)
+                        .toList();
+                for (int i = 0; i < Math.min(free.size(), tourBookings.size()); i++) {
+                    Long guideId = free.get(i);
+                    assignments.add(new Assignment(tourBookings.get(i).id(), guideId, date));
+                    busyOnDate.add(guideId);
+                    load.merge(guideId, 1, Integer::sum);
+                }
+            });
+        });
+        return assignments;
+    }
+}
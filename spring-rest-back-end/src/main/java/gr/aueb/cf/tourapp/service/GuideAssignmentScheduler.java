@@ -0,0 +1,28 @@
+package gr.aueb.cf.tourapp.service;
+
+import gr.aueb.cf.tourapp.core.exceptions.AppObjectAlreadyExistsException;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.assignment.enabled", havingValue = "true")
+public class GuideAssignmentScheduler {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(GuideAssignmentScheduler.class);
+    private final GuideAssignmentService guideAssignmentService;
+
+    @Scheduled(initialDelayString = "${app.assignment.interval:PT5M}", fixedDelayString = "${app.assignment.interval:PT5M}")
+    public void assignGuides() {
+        try {
+            guideAssignmentService.assignGuides();
+        } catch (AppObjectAlreadyExistsException e) {
+            // The next run plans again from the committed state
+            LOGGER.warn("Guide assignment skipped: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package gr.aueb.cf.tourapp.service;
+
+import gr.aueb.cf.tourapp.core.exceptions.AppObjectAlreadyExistsException;
+import gr.aueb.cf.tourapp.core.filters.CountCache;
+import gr.aueb.cf.tourapp.dto.GuideAssignmentDTO;
+import gr.aueb.cf.tourapp.dto.GuideAssignmentPlanDTO;
+import gr.aueb.cf.tourapp.model.Booking;
+import gr.aueb.cf.tourapp.repository.BookingRepository;
+import gr.aueb.cf.tourapp.repository.GuideRepository;
+import gr.aueb.cf.tourapp.repository.projections.AssignableBooking;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Assigns guides to the upcoming bookings without one, instead of guides polling and claiming them
+ * one at a time. Reads three projections, plans with {@link GuideAssignmentPlanner} and applies the
+ * plan as one batch of conditional updates.
+ */
+@Service
+@RequiredArgsConstructor
+public class GuideAssignmentService {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(GuideAssignmentService.class);
+    private final BookingRepository bookingRepository;
+    private final GuideRepository guideRepository;
+    private final CountCache countCache;
+
+    @Transactional(readOnly = true)
+    public GuideAssignmentPlanDTO planAssignments() {
+        List<AssignableBooking> bookings = bookingRepository.findAssignableAfter(LocalDate.now());
+        return toDTO(bookings, plan(bookings), 0, true);
+    }
+
+    @Transactional(rollbackFor = Exception.class)
+    public GuideAssignmentPlanDTO assignGuides() throws AppObjectAlreadyExistsException {
+        List<AssignableBooking> bookings = bookingRepository.findAssignableAfter(LocalDate.now());
+        List<GuideAssignmentPlanner.Assignment> assignments = plan(bookings);
+
+        Map<Long, Long> guideIdsByBookingId = new LinkedHashMap<>();
+        assignments.forEach(assignment -> guideIdsByBookingId.put(assignment.bookingId(), assignment.guideId()));
+        int applied;
+        try {
+            applied = bookingRepository.assignGuides(guideIdsByBookingId);
+        } catch (DataIntegrityViolationException e) {
+            // A guide claimed another booking on one of the dates after the plan was made
+            throw new AppObjectAlreadyExistsException("GuideAssignment",
+                    "A guide claimed a booking while the assignment was applied, try again");
+        }
+        if (applied > 0) countCache.evict(Booking.class);
+
+        LOGGER.info("Assigned guides to {} of {} unassigned bookings", applied, bookings.size());
+        return toDTO(bookings, assignments, applied, false);
+    }
+
+    private List<GuideAssignmentPlanner.Assignment> plan(List<AssignableBooking> bookings) {
+        if (bookings.isEmpty()) return List.of();
+        return GuideAssignmentPlanner.plan(bookings, guideRepository.findActiveGuideTours(),
+                bookingRepository.findGuideDaysAfter(LocalDate.now()));
+    }
+
+    private static GuideAssignmentPlanDTO toDTO(List<AssignableBooking> bookings,
+                                                List<GuideAssignmentPlanner.Assignment> assignments,
+                                                int applied, boolean dryRun) {
+        return new GuideAssignmentPlanDTO(dryRun, bookings.size(), assignments.size(), applied,
+                assignments.stream()
+                        .map(assignment -> new GuideAssignmentDTO(assignment.bookingId(), assignment.guideId(),
+                                assignment.bookingDate()))
+                        .collect(Collectors.toList()));
+    }
+}
@@ -1,16 +1,20 @@
 package gr.aueb.cf.tourapp.service;
 
+import gr.aueb.cf.tourapp.core.enums.CountMode;
 import gr.aueb.cf.tourapp.core.exceptions.AppObjectAlreadyExistsException;
 import gr.aueb.cf.tourapp.core.exceptions.AppObjectInvalidArgumentException;
+import gr.aueb.cf.tourapp.core.filters.CountCache;
 import gr.aueb.cf.tourapp.core.filters.GuideFilters;
 import gr.aueb.cf.tourapp.core.filters.Paginated;
 import gr.aueb.cf.tourapp.core.specifications.GuideSpecification;
+import gr.aueb.cf.tourapp.core.specifications.KeysetSpecification;
 import gr.aueb.cf.tourapp.dto.GuideInsertDTO;
 import gr.aueb.cf.tourapp.dto.GuideReadOnlyDTO;
 import gr.aueb.cf.tourapp.mapper.Mapper;
 import gr.aueb.cf.tourapp.model.Guide;
 import gr.aueb.cf.tourapp.repository.GuideRepository;
 import gr.aueb.cf.tourapp.repository.UserRepository;
+import gr.aueb.cf.tourapp.repository.projections.GuideProjection;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -23,6 +27,7 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,6 +38,7 @@ public class GuideService {
     private final GuideRepository guideRepository;
     private final Mapper mapper;
     private final UserRepository userRepository;
+    private final CountCache countCache;
 
     @Transactional(rollbackOn = {Exception.class})
     public GuideReadOnlyDTO saveGuide(GuideInsertDTO guideInsertDTO)
@@ -45,39 +51,59 @@ public class GuideService {
 
         Guide guide = mapper.mapToGuideEntity(guideInsertDTO);
         Guide savedGuide = guideRepository.save(guide);
+        countCache.evict(Guide.class);
 
         return mapper.mapToGuideReadOnlyDTO(savedGuide);
     }
 
     @Transactional
     public List<GuideReadOnlyDTO> getAllGuides() {
-        return guideRepository.findAll().stream().map(mapper::mapToGuideReadOnlyDTO).collect(Collectors.toList());
+        return guideRepository.findAllProjected(null, Sort.unsorted()).stream().map(mapper::mapToGuideReadOnlyDTO).collect(Collectors.toList());
     }
 
     @Transactional
-    public Page<GuideReadOnlyDTO> getPaginatedGuides(int page, int size) {
-        String defaultSort = "id";
-        Pageable pageable = PageRequest.of(page, size, Sort.by(defaultSort).ascending());
-        return guideRepository.findAll(pageable).map(mapper::mapToGuideReadOnlyDTO);
+    public Paginated<GuideReadOnlyDTO> getPaginatedGuides(int page, int size, String cursor, CountMode countMode) {
+        GuideFilters filters = new GuideFilters();
+        filters.setPage(page);
+        filters.setPageSize(size);
+        filters.setCursor(cursor);
+        filters.setCountMode(countMode);
+        return getGuidesFilteredPaginated(filters);
     }
 
     @Transactional
     public Page<GuideReadOnlyDTO> getPaginatedSortedGuides(int page, int size, String sortBy, String sortDirection) {
         Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
         Pageable pageable = PageRequest.of(page, size, sort);
-        return guideRepository.findAll(pageable).map(mapper::mapToGuideReadOnlyDTO);
+        return guideRepository.findAllProjected(null, pageable).map(mapper::mapToGuideReadOnlyDTO);
     }
 
     @Transactional
     public List<GuideReadOnlyDTO> getGuidesFiltered(GuideFilters filters) {
-        var filtered = guideRepository.findAll(getSpecsFromFilters(filters));
+        var filtered = guideRepository.findAllProjected(getSpecsFromFilters(filters), Sort.unsorted());
         return filtered.stream().map(mapper::mapToGuideReadOnlyDTO).collect(Collectors.toList());
     }
 
     @Transactional
-    public Paginated<GuideReadOnlyDTO> getGuidesFilteredPaginated(GuideFilters filters) {
-        var filtered = guideRepository.findAll(getSpecsFromFilters(filters), filters.getPageable());
-        return new Paginated<>(filtered.map(mapper::mapToGuideReadOnlyDTO));
+    public Paginated<GuideReadOnlyDTO> getGuidesFilteredPaginated(GuideFilters filters)
+            throws AppObjectInvalidArgumentException {
+        if (filters.isKeyset()) {
+            var sortKey = filters.getKeysetSortKey(GuideProjection.SORT_KEYS);
+            Specification<Guide> specs = getSpecsFromFilters(filters)
+                    .and(KeysetSpecification.after(filters.getKeysetCursor()));
+            var rows = guideRepository.findAllProjected(specs, filters.getKeysetSort(), filters.getKeysetLimit());
+            return Paginated.ofKeyset(rows, filters, sortKey, GuideProjection::id).map(mapper::mapToGuideReadOnlyDTO);
+        }
+
+        Specification<Guide> specs = getSpecsFromFilters(filters);
+        if (filters.getCountMode() == CountMode.EXACT) {
+            return new Paginated<>(guideRepository.findAllProjected(specs, filters.getPageable()).map(mapper::mapToGuideReadOnlyDTO));
+        }
+        var slice = guideRepository.findSliceProjected(specs, filters.getPageable());
+        LongSupplier total = filters.getCountMode() == CountMode.CACHED
+                ? () -> countCache.count(Guide.class, filters, () -> guideRepository.count(specs))
+                : null;
+        return Paginated.of(slice, total).map(mapper::mapToGuideReadOnlyDTO);
     }
 
     private Specification<Guide> getSpecsFromFilters(GuideFilters filters) {
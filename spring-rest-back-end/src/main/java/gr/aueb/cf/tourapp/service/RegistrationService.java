@@ -0,0 +1,380 @@
+package gr.aueb.cf.tourapp.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gr.aueb.cf.tourapp.core.enums.ExportFormat;
+import gr.aueb.cf.tourapp.core.enums.RegistrationStatus;
+import gr.aueb.cf.tourapp.core.enums.Role;
+import gr.aueb.cf.tourapp.core.exceptions.AppObjectInvalidArgumentException;
+import gr.aueb.cf.tourapp.core.filters.CountCache;
+import gr.aueb.cf.tourapp.dto.CustomerInsertDTO;
+import gr.aueb.cf.tourapp.dto.GuideInsertDTO;
+import gr.aueb.cf.tourapp.dto.RegistrationResultDTO;
+import gr.aueb.cf.tourapp.dto.UserInsertDTO;
+import gr.aueb.cf.tourapp.mapper.Mapper;
+import gr.aueb.cf.tourapp.model.Customer;
+import gr.aueb.cf.tourapp.model.Guide;
+import gr.aueb.cf.tourapp.repository.CustomerRepository;
+import gr.aueb.cf.tourapp.repository.GuideRepository;
+import gr.aueb.cf.tourapp.repository.UserRepository;
+import gr.aueb.cf.tourapp.repository.projections.UserKeys;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Registers customers or guides from an uploaded CSV or JSON stream, a chunk at a time. Each chunk
+ * is checked for taken usernames and vat numbers in one query, has its passwords hashed in parallel
+ * and is inserted in one JDBC batch per table. Every row gets its own result and the role of the
+ * endpoint, whatever the row says.
+ */
+@Service
+public class RegistrationService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RegistrationService.class);
+    private static final Set<String> USER_COLUMNS = Set.of("username", "password", "firstname", "lastname", "email",
+            "vat", "dateOfBirth", "genderType", "nationality", "isActive");
+
+    private final UserRepository userRepository;
+    private final CustomerRepository customerRepository;
+    private final GuideRepository guideRepository;
+    private final Mapper mapper;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CountCache countCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor hashingExecutor;
+    private final int chunkSize;
+
+    public RegistrationService(UserRepository userRepository,
+                               CustomerRepository customerRepository,
+                               GuideRepository guideRepository,
+                               Mapper mapper,
+                               @Qualifier("registrationPasswordEncoder") PasswordEncoder passwordEncoder,
+                               Validator validator,
+                               ObjectMapper objectMapper,
+                               CountCache countCache,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.registration.chunk-size:500}") int chunkSize,
+                               @Value("${app.registration.hash-threads:0}") int hashThreads) {
+        this.userRepository = userRepository;
+        this.customerRepository = customerRepository;
+        this.guideRepository = guideRepository;
+        this.mapper = mapper;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.countCache = countCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+
+        int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Hashes go through the bulk share of the throttled encoder, so logins keep the rest of the permits
+        // however many threads hash. Once a chunk's worth of hashes is queued, the uploading thread hashes the rest itself
+        this.hashingExecutor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(chunkSize), runnable -> {
+                    Thread thread = new Thread(runnable, "registration-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingExecutor.shutdownNow();
+    }
+
+    public List<RegistrationResultDTO> registerCustomers(ExportFormat format, InputStream in) throws IOException {
+        return register(rows(format, in, CustomerInsertDTO.class), new Target<>(Role.CUSTOMER, Customer.class,
+                CustomerInsertDTO::getUserInsertDTO, mapper::mapToCustomerEntity, customerRepository::insertAll,
+                Customer::getId, Customer::getUuid));
+    }
+
+    public List<RegistrationResultDTO> registerGuides(ExportFormat format, InputStream in) throws IOException {
+        return register(rows(format, in, GuideInsertDTO.class), new Target<>(Role.GUIDE, Guide.class,
+                GuideInsertDTO::getUserInsertDTO, mapper::mapToGuideEntity, guideRepository::insertAll,
+                Guide::getId, Guide::getUuid));
+    }
+
+    private <D, E> List<RegistrationResultDTO> register(Iterator<Row<D>> rows, Target<D, E> target) {
+        List<RegistrationResultDTO> results = new ArrayList<>();
+        Set<String> usernames = new HashSet<>();
+        Set<String> vats = new HashSet<>();
+        List<Row<D>> chunk = new ArrayList<>(chunkSize);
+
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() == chunkSize || !rows.hasNext()) {
+                registerChunk(chunk, target, usernames, vats, results);
+                chunk.clear();
+            }
+        }
+
+        if (results.stream().anyMatch(result -> result.getStatus() == RegistrationStatus.CREATED)) {
+            countCache.evict(target.entity());
+        }
+        results.sort(Comparator.comparingInt(RegistrationResultDTO::getRow));
+        LOGGER.info("Registered {} of {} {} rows", results.stream()
+                .filter(result -> result.getStatus() == RegistrationStatus.CREATED).count(), results.size(), target.role());
+        return results;
+    }
+
+    private <D, E> void registerChunk(List<Row<D>> chunk, Target<D, E> target, Set<String> usernames, Set<String> vats,
+                                      List<RegistrationResultDTO> results) {
+        List<Row<D>> accepted = new ArrayList<>();
+        for (Row<D> row : chunk) {
+            UserInsertDTO user = row.dto() == null ? null : target.user().apply(row.dto());
+            if (user != null) user.setRole(target.role());
+            String problem = row.error() != null ? row.error() : problemsOf(row.dto(), target);
+            if (problem != null) {
+                results.add(rejected(row, user, RegistrationStatus.INVALID, problem));
+            } else if (usernames.contains(user.getUsername()) || vats.contains(user.getVat())) {
+                results.add(rejected(row, user, RegistrationStatus.DUPLICATE, "Username or vat number repeats an earlier row"));
+            } else {
+                usernames.add(user.getUsername());
+                vats.add(user.getVat());
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) return;
+
+        List<UserKeys> taken = userRepository.findKeysByUsernameInOrVatIn(
+                accepted.stream().map(row -> target.user().apply(row.dto()).getUsername()).toList(),
+                accepted.stream().map(row -> target.user().apply(row.dto()).getVat()).toList());
+        Set<String> takenUsernames = taken.stream().map(UserKeys::username).collect(Collectors.toSet());
+        Set<String> takenVats = taken.stream().map(UserKeys::vat).collect(Collectors.toSet());
+
+        List<Row<D>> fresh = new ArrayList<>();
+        for (Row<D> row : accepted) {
+            UserInsertDTO user = target.user().apply(row.dto());
+            if (takenUsernames.contains(user.getUsername())) {
+                results.add(rejected(row, user, RegistrationStatus.DUPLICATE, "Username " + user.getUsername() + " already exists"));
+            } else if (takenVats.contains(user.getVat())) {
+                results.add(rejected(row, user, RegistrationStatus.DUPLICATE, "Vat number " + user.getVat() + " already exists"));
+            } else {
+                fresh.add(row);
+            }
+        }
+
+        List<CompletableFuture<String>> hashes = fresh.stream()
+                .map(row -> CompletableFuture.supplyAsync(() ->
+                        passwordEncoder.encode(target.user().apply(row.dto()).getPassword()), hashingExecutor))
+                .toList();
+
+        List<Row<D>> mappedRows = new ArrayList<>();
+        List<E> entities = new ArrayList<>();
+        for (int i = 0; i < fresh.size(); i++) {
+            Row<D> row = fresh.get(i);
+            UserInsertDTO user = target.user().apply(row.dto());
+            try {
+                entities.add(target.mapper().apply(row.dto(), hashes.get(i).join()));
+                mappedRows.add(row);
+            } catch (CompletionException e) {
+                results.add(rejected(row, user, RegistrationStatus.FAILED, e.getCause().getMessage()));
+            } catch (AppObjectInvalidArgumentException e) {
+                results.add(rejected(row, user, RegistrationStatus.INVALID, e.getMessage()));
+            }
+        }
+        if (entities.isEmpty()) return;
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> target.inserter().accept(entities));
+            for (int i = 0; i < entities.size(); i++) {
+                results.add(created(mappedRows.get(i), entities.get(i), target));
+            }
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent registration took a username or vat number after the check; insert one by one
+            for (int i = 0; i < entities.size(); i++) {
+                Row<D> row = mappedRows.get(i);
+                E entity = entities.get(i);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> target.inserter().accept(List.of(entity)));
+                    results.add(created(row, entity, target));
+                } catch (DataIntegrityViolationException rowException) {
+                    results.add(rejected(row, target.user().apply(row.dto()), RegistrationStatus.DUPLICATE,
+                            "Username or vat number already exists"));
+                }
+            }
+        }
+    }
+
+    private <D> String problemsOf(D dto, Target<D, ?> target) {
+        List<String> problems = new ArrayList<>();
+        validator.validate(dto).stream().map(ConstraintViolation::getMessage).forEach(problems::add);
+
+        UserInsertDTO user = target.user().apply(dto);
+        if (user != null) {
+            validator.validate(user).stream().map(ConstraintViolation::getMessage).forEach(problems::add);
+            if (user.getUsername() == null) problems.add("Username cannot be empty");
+            if (user.getPassword() == null) problems.add("Password cannot be empty");
+        }
+        return problems.isEmpty() ? null : String.join("; ", problems);
+    }
+
+    private static <D, E> RegistrationResultDTO created(Row<D> row, E entity, Target<D, E> target) {
+        return new RegistrationResultDTO(row.number(), target.user().apply(row.dto()).getUsername(),
+                RegistrationStatus.CREATED, target.id().apply(entity), target.uuid().apply(entity), null);
+    }
+
+    private static RegistrationResultDTO rejected(Row<?> row, UserInsertDTO user, RegistrationStatus status, String message) {
+        return new RegistrationResultDTO(row.number(), user == null ? null : user.getUsername(), status, null, null, message);
+    }
+
+    private <D> Iterator<Row<D>> rows(ExportFormat format, InputStream in, Class<D> type) throws IOException {
+        return format == ExportFormat.CSV ? csvRows(in, type) : jsonRows(in, type);
+    }
+
+    private <D> Iterator<Row<D>> jsonRows(InputStream in, Class<D> type) throws IOException {
+        MappingIterator<D> values = objectMapper.readerFor(type).readValues(in);
+        return new Iterator<>() {
+            private int number;
+            private boolean broken;
+
+            @Override
+            public boolean hasNext() {
+                if (broken) return false;
+                try {
+                    return values.hasNextValue();
+                } catch (IOException e) {
+                    return true;
+                }
+            }
+
+            @Override
+            public Row<D> next() {
+                number++;
+                try {
+                    return new Row<>(number, values.nextValue(), null);
+                } catch (IOException | RuntimeException e) {
+                    // The parser cannot resync after a malformed value, so the rest of the input is not read
+                    broken = true;
+                    return new Row<>(number, null, "Row could not be read, nor any after it: " + e.getMessage());
+                }
+            }
+        };
+    }
+
+    private <D> Iterator<Row<D>> csvRows(InputStream in, Class<D> type) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) return Collections.emptyIterator();
+        List<String> header = csvFields(headerLine);
+
+        return new Iterator<>() {
+            private int number;
+            private String line = nextLine();
+
+            @Override
+            public boolean hasNext() {
+                return line != null;
+            }
+
+            @Override
+            public Row<D> next() {
+                number++;
+                List<String> fields = csvFields(line);
+                line = nextLine();
+                try {
+                    return new Row<>(number, fromCsv(header, fields, type), null);
+                } catch (IllegalArgumentException e) {
+                    return new Row<>(number, null, "Row could not be read: " + e.getMessage());
+                }
+            }
+
+            private String nextLine() {
+                try {
+                    String next;
+                    do {
+                        next = reader.readLine();
+                    } while (next != null && next.isBlank());
+                    return next;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    // Columns of the user go into userInsertDTO; isActive applies to both
+    private <D> D fromCsv(List<String> header, List<String> fields, Class<D> type) {
+        Map<String, Object> dto = new HashMap<>();
+        Map<String, Object> user = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i);
+            String value = i < fields.size() && !fields.get(i).isEmpty() ? fields.get(i) : null;
+            if (USER_COLUMNS.contains(column)) user.put(column, value);
+            if (!USER_COLUMNS.contains(column) || column.equals("isActive")) dto.put(column, value);
+        }
+        dto.put("userInsertDTO", user);
+        return objectMapper.convertValue(dto, type);
+    }
+
+    private static List<String> csvFields(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record Row<D>(int number, D dto, String error) {
+    }
+
+    private record Target<D, E>(Role role,
+                                Class<E> entity,
+                                Function<D, UserInsertDTO> user,
+                                BiFunction<D, String, E> mapper,
+                                Consumer<List<E>> inserter,
+                                Function<E, Long> id,
+                                Function<E, String> uuid) {
+    }
+}
@@ -0,0 +1,101 @@
+package gr.aueb.cf.tourapp.service;
+
+import gr.aueb.cf.tourapp.repository.TourRepository;
+import gr.aueb.cf.tourapp.repository.projections.TourProjection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The tours held in memory as an immutable snapshot indexed by id and category. Readers never
+ * lock or query; a write to the tours discards the snapshot once it completes and the next read
+ * builds and publishes a new one in a single swap. Writes that bypass this node (another node, a
+ * script against the database) become visible once the snapshot is older than
+ * {@code app.tours.catalog-ttl}.
+ */
+@Component
+public class TourCatalog {
+
+    private final TourRepository tourRepository;
+    private final long ttlNanos;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public TourCatalog(TourRepository tourRepository, @Value("${app.tours.catalog-ttl:PT1M}") Duration ttl) {
+        this.tourRepository = tourRepository;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public List<TourProjection> findAll() {
+        return snapshot().tours();
+    }
+
+    public Optional<TourProjection> findById(Long id) {
+        return Optional.ofNullable(id == null ? null : snapshot().byId().get(id));
+    }
+
+    /**
+     * Case-insensitive, like the category column under MySQL's default collation.
+     */
+    public Optional<TourProjection> findByCategory(String category) {
+        return Optional.ofNullable(category == null ? null : snapshot().byCategory().get(key(category)));
+    }
+
+    /**
+     * Called by every write to the tours. Within a transaction the snapshot is discarded again after
+     * it completes, so that a read racing the write cannot publish what it saw before the commit.
+     */
+    public void invalidate() {
+        discard();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    discard();
+                }
+            });
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null && System.nanoTime() - current.loadedAt() < ttlNanos) return current;
+
+        long loadedGeneration = generation.get();
+        Snapshot loaded = Snapshot.of(tourRepository.findAllProjectedBy(), System.nanoTime());
+        synchronized (this) {
+            if (generation.get() == loadedGeneration) snapshot = loaded;
+        }
+        return loaded;
+    }
+
+    private synchronized void discard() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private static String key(String category) {
+        return category.toLowerCase(Locale.ROOT);
+    }
+
+    private record Snapshot(List<TourProjection> tours,
+                            Map<Long, TourProjection> byId,
+                            Map<String, TourProjection> byCategory,
+                            long loadedAt) {
+
+        static Snapshot of(List<TourProjection> tours, long loadedAt) {
+            return new Snapshot(List.copyOf(tours),
+                    tours.stream().collect(Collectors.toUnmodifiableMap(TourProjection::id, Function.identity())),
+                    tours.stream().collect(Collectors.toUnmodifiableMap(tour -> key(tour.category()), Function.identity(),
+                            (first, second) -> first)),
+                    loadedAt);
+        }
+    }
+}
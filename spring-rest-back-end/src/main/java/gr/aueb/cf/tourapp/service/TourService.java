@@ -24,38 +24,40 @@ public class TourService {
     public static final Logger LOGGER = LoggerFactory.getLogger(TourService.class);
     public final TourRepository tourRepository;
     public final Mapper mapper;
+    private final TourCatalog tourCatalog;
 
     @Transactional(rollbackOn = Exception.class)
     public TourReadOnlyDTO saveTour(TourInsertDTO tourInsertDTO) throws AppObjectAlreadyExistsException, AppObjectInvalidArgumentException {
 
-        if (tourRepository.findByCategory(tourInsertDTO.getCategory()).isPresent()) {
+        // Checked against the table, the catalog may not have seen a tour added on another node yet
+        if (tourRepository.existsByCategory(tourInsertDTO.getCategory())) {
             throw new AppObjectAlreadyExistsException("Tour", "The tour of the category " + tourInsertDTO.getCategory() + " already exists");
         }
 
         Tour tourToBeInserted = mapper.mapToTourEntity(tourInsertDTO);
         Tour savedTour = tourRepository.save(tourToBeInserted);
+        tourCatalog.invalidate();
         return mapper.mapToTourReadOnlyDTO(savedTour);
     }
 
     @Transactional(rollbackOn = Exception.class)
     public void deleteByTourId(Long id) throws AppObjectNotFoundException {
 
-        if (tourRepository.findById(id).isEmpty()) {
+        if (!tourRepository.existsById(id)) {
             throw new AppObjectNotFoundException("Tour", "Tour with id " + id + " do not exist");
         }
 
         tourRepository.deleteById(id);
+        tourCatalog.invalidate();
         LOGGER.info("The tour was successfully deleted");
     }
 
-    @Transactional
     public List<TourReadOnlyDTO> getAllTours() {
-        return tourRepository.findAll().stream().map(mapper::mapToTourReadOnlyDTO).collect(Collectors.toList());
+        return tourCatalog.findAll().stream().map(mapper::mapToTourReadOnlyDTO).collect(Collectors.toList());
     }
 
-    @Transactional
     public TourReadOnlyDTO findTourById(Long id) {
-        return tourRepository.findById(id).map(mapper::mapToTourReadOnlyDTO).orElseThrow(() ->
+        return tourCatalog.findById(id).map(mapper::mapToTourReadOnlyDTO).orElseThrow(() ->
                 new AppObjectNotFoundException("Tour", "Tour with id " + id + " do not exist"));
     }
 }
@@ -0,0 +1,67 @@
+package gr.aueb.cf.tourapp;
+
+import gr.aueb.cf.tourapp.core.enums.GenderType;
+import gr.aueb.cf.tourapp.core.enums.Role;
+import gr.aueb.cf.tourapp.model.*;
+
+import java.time.LocalDate;
+
+/**
+ * New, unsaved entities for the tests to persist. Customer and guide {@code i} are named
+ * {@code customer<i>} and {@code guide<i>} with the VATs {@code 1<i>} and {@code 2<i>} padded to
+ * nine digits.
+ */
+public final class Fixtures {
+
+    public static final String PASSWORD = "secret";
+
+    private Fixtures() {
+
+    }
+
+    public static Tour tour(String category, double price) {
+        return Tour.builder().category(category).price(price).build();
+    }
+
+    public static Customer customer(int i) {
+        return customer("customer" + i, customerVat(i));
+    }
+
+    public static Customer customer(String username, String vat) {
+        return Customer.builder().isActive(true).user(user(username, Role.CUSTOMER, vat)).build();
+    }
+
+    public static Guide guide(int i, Tour tour) {
+        return guide("guide" + i, guideVat(i), tour);
+    }
+
+    public static Guide guide(String username, String vat, Tour tour) {
+        return Guide.builder().isActive(true).tour(tour).user(user(username, Role.GUIDE, vat)).build();
+    }
+
+    public static Booking booking(LocalDate date, Customer customer, Guide guide, Tour tour) {
+        return Booking.builder().bookingDate(date).customer(customer).guide(guide).tour(tour).build();
+    }
+
+    public static User user(String username, Role role, String vat) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword(PASSWORD);
+        user.setFirstname("First " + username);
+        user.setLastname("Last " + username);
+        user.setVat(vat);
+        user.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        user.setGenderType(GenderType.OTHER);
+        user.setRole(role);
+        user.setIsActive(true);
+        return user;
+    }
+
+    public static String customerVat(int i) {
+        return String.format("1%08d", i);
+    }
+
+    public static String guideVat(int i) {
+        return String.format("2%08d", i);
+    }
+}
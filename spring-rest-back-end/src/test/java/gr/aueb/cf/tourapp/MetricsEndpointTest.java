@@ -0,0 +1,48 @@
+package gr.aueb.cf.tourapp;
+
+import gr.aueb.cf.tourapp.security.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Actuator on the application port, which MockMvc serves
+@SpringBootTest(properties = "management.server.port=")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    void prometheusScrapeCoversEndpointsQueriesPoolAndTokens() throws Exception {
+        mockMvc.perform(get("/api/tours/all")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/guides/available-bookings")
+                .header("Authorization", "Bearer " + jwtService.generateToken("guide", "GUIDE")));
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("uri=\"/api/tours/all\"")
+                .contains("hibernate_query_executions_total")
+                .contains("hibernate_second_level_cache_requests_total")
+                .contains("hikaricp_connections_acquire_seconds_bucket")
+                .contains("hikaricp_connections_pending")
+                .contains("app_jwt_verification_seconds_bucket{")
+                .contains("app_bookings_saved_total")
+                .contains("app_bookings_conflicts_total");
+    }
+}
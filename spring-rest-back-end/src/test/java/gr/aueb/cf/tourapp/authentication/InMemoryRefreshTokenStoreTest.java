@@ -0,0 +1,60 @@
+package gr.aueb.cf.tourapp.authentication;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRefreshTokenStoreTest {
+
+    private final InMemoryRefreshTokenStore store = new InMemoryRefreshTokenStore();
+
+    @Test
+    void removeFamilyDropsOnlyTheTokensOfThatFamily() {
+        store.save(hash("a1"), token("customer0", "a"));
+        store.save(hash("a2"), token("customer0", "a"));
+        store.save(hash("b1"), token("customer0", "b"));
+
+        store.removeFamily("a");
+
+        assertThat(store.consume(hash("a1"))).isEmpty();
+        assertThat(store.consume(hash("a2"))).isEmpty();
+        assertThat(store.consume(hash("b1"))).isPresent();
+    }
+
+    @Test
+    void removeUserDropsEveryFamilyOfTheUser() {
+        store.save(hash("a1"), token("customer0", "a"));
+        store.save(hash("b1"), token("customer0", "b"));
+        store.save(hash("c1"), token("customer1", "c"));
+
+        store.removeUser("customer0");
+
+        assertThat(store.consume(hash("a1"))).isEmpty();
+        assertThat(store.consume(hash("b1"))).isEmpty();
+        assertThat(store.consume(hash("c1"))).isPresent();
+    }
+
+    @Test
+    void tokensSavedAfterARemovalAreKept() {
+        store.save(hash("a1"), token("customer0", "a"));
+        store.removeUser("customer0");
+        store.removeFamily("a");
+
+        store.save(hash("b1"), token("customer0", "b"));
+
+        assertThat(store.consume(hash("b1"))).isPresent();
+        store.removeUser("customer0");
+        assertThat(store.consume(hash("b1"))).isEmpty();
+    }
+
+    private static RefreshToken token(String username, String family) {
+        return new RefreshToken(username, family, "First", "Last", System.currentTimeMillis() + 60_000, false);
+    }
+
+    private static ByteBuffer hash(String token) {
+        return ByteBuffer.wrap(token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,180 @@
+package gr.aueb.cf.tourapp.authentication;
+
+import gr.aueb.cf.tourapp.core.enums.Role;
+import gr.aueb.cf.tourapp.model.Customer;
+import gr.aueb.cf.tourapp.model.Tour;
+import gr.aueb.cf.tourapp.model.User;
+import gr.aueb.cf.tourapp.repository.BookingRepository;
+import gr.aueb.cf.tourapp.repository.CustomerRepository;
+import gr.aueb.cf.tourapp.repository.TourRepository;
+import gr.aueb.cf.tourapp.repository.UserRepository;
+import gr.aueb.cf.tourapp.security.JwtService;
+import gr.aueb.cf.tourapp.service.TourCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static gr.aueb.cf.tourapp.Fixtures.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The stateless path of the filter, switched on here: the token's claims are trusted without loading
+ * the user, unless the user's tokens were revoked after it was issued.
+ */
+@SpringBootTest(properties = {"app.jwt.stateless=true", "app.jwt.revocation.enabled=true"})
+@AutoConfigureMockMvc
+@Transactional
+class JwtAuthenticationFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TourRepository tourRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserIdentityService userIdentityService;
+
+    @Autowired
+    private TourCatalog tourCatalog;
+
+    @Autowired
+    private ShiftedClock clock;
+
+    @MockitoSpyBean
+    private UserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        clock.reset();
+        Tour tour = tourRepository.save(tour("Hiking", 50.0));
+        Customer customer = customerRepository.save(customer(0));
+        bookingRepository.saveAndFlush(booking(LocalDate.now().plusDays(1), customer, null, tour));
+        userRepository.saveAndFlush(user("admin0", Role.ADMIN, "300000000"));
+        userIdentityService.evictAll();
+        tourCatalog.invalidate();
+    }
+
+    @Test
+    void validTokenIsTrustedWithoutLoadingTheUser() throws Exception {
+        mockMvc.perform(get("/api/customers/bookings").header("Authorization", bearer("customer0", Role.CUSTOMER)))
+                .andExpect(status().isOk());
+
+        verify(userDetailsService, never()).loadUserByUsername(any());
+    }
+
+    @Test
+    void tokensOfADeactivatedUserAreRejected() throws Exception {
+        String token = bearer("customer0", Role.CUSTOMER);
+        clock.shift(Duration.ofSeconds(2));
+
+        User user = userRepository.findByUsername("customer0").orElseThrow();
+        user.setIsActive(false);
+        userRepository.saveAndFlush(user);
+
+        mockMvc.perform(get("/api/customers/bookings").header("Authorization", token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void tokensIssuedBeforeARoleChangeAreRejected() throws Exception {
+        String token = bearer("admin0", Role.ADMIN);
+        mockMvc.perform(get("/api/admin/cache/statistics").header("Authorization", token))
+                .andExpect(status().isOk());
+        clock.shift(Duration.ofSeconds(2));
+
+        User admin = userRepository.findByUsername("admin0").orElseThrow();
+        admin.setRole(Role.CUSTOMER);
+        userRepository.saveAndFlush(admin);
+
+        mockMvc.perform(get("/api/admin/cache/statistics").header("Authorization", token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void tokenIssuedInTheSecondOfTheRevocationOrLaterIsAccepted() throws Exception {
+        tokenRevocationService.revoke("customer0");
+
+        mockMvc.perform(get("/api/customers/bookings").header("Authorization", bearer("customer0", Role.CUSTOMER)))
+                .andExpect(status().isOk());
+    }
+
+    private String bearer(String username, Role role) {
+        return "Bearer " + jwtService.generateToken(username, role.name());
+    }
+
+    /**
+     * The system clock moved by an offset, so that a revocation can happen in a later second than
+     * the token it applies to.
+     */
+    static class ShiftedClock extends Clock {
+
+        private volatile Duration offset = Duration.ZERO;
+
+        void shift(Duration by) {
+            offset = offset.plus(by);
+        }
+
+        void reset() {
+            offset = Duration.ZERO;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.now().plus(offset);
+        }
+    }
+
+    @TestConfiguration
+    static class ClockConfiguration {
+
+        @Bean
+        ShiftedClock clock() {
+            return new ShiftedClock();
+        }
+    }
+}
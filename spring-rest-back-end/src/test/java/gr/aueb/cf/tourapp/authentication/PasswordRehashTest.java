@@ -0,0 +1,97 @@
+package gr.aueb.cf.tourapp.authentication;
+
+import gr.aueb.cf.tourapp.core.enums.Role;
+import gr.aueb.cf.tourapp.core.exceptions.AppServiceBusyException;
+import gr.aueb.cf.tourapp.model.User;
+import gr.aueb.cf.tourapp.repository.UserRepository;
+import gr.aueb.cf.tourapp.security.BCryptCalibration;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import static gr.aueb.cf.tourapp.Fixtures.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Logging in rehashes stored passwords whose BCrypt cost is below the configured one, and never
+ * lowers it.
+ */
+@SpringBootTest(properties = "app.password.bcrypt.strength=6")
+@AutoConfigureMockMvc
+@Transactional
+class PasswordRehashTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoSpyBean
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void loginRehashesAWeakerHash() throws Exception {
+        saveUser("weak", 4);
+
+        login("weak").andExpect(status().isOk());
+
+        String stored = storedPassword("weak");
+        assertThat(BCryptCalibration.strengthOf(stored)).isEqualTo(6);
+        assertThat(passwordEncoder.matches(PASSWORD, stored)).isTrue();
+    }
+
+    @Test
+    void loginKeepsAStrongerHash() throws Exception {
+        saveUser("strong", 8);
+
+        login("strong").andExpect(status().isOk());
+
+        assertThat(BCryptCalibration.strengthOf(storedPassword("strong"))).isEqualTo(8);
+    }
+
+    @Test
+    void saturatedHashingIsServiceUnavailable() throws Exception {
+        saveUser("busy", 4);
+        doThrow(new AppServiceBusyException("Authentication", "busy")).when(passwordEncoder).matches(any(), any());
+
+        login("busy")
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    private void saveUser(String username, int cost) {
+        User user = user(username, Role.CUSTOMER, "300000000");
+        user.setPassword("{bcrypt}" + BCrypt.hashpw(PASSWORD, BCrypt.gensalt(cost)));
+        userRepository.saveAndFlush(user);
+    }
+
+    private ResultActions login(String username) throws Exception {
+        return mockMvc.perform(post("/api/auth/authenticate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}"));
+    }
+
+    private String storedPassword(String username) {
+        entityManager.clear();
+        return userRepository.findByUsername(username).orElseThrow().getPassword();
+    }
+}
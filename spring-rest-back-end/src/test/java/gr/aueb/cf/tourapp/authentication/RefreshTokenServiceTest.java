@@ -0,0 +1,59 @@
+package gr.aueb.cf.tourapp.authentication;
+
+import gr.aueb.cf.tourapp.core.exceptions.AppObjectNotAuthorizedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RefreshTokenServiceTest {
+
+    private final RefreshTokenService refreshTokenService =
+            new RefreshTokenService(new InMemoryRefreshTokenStore(), Duration.ofDays(1));
+
+    @Test
+    void rotateIssuesASuccessorForTheSameUser() {
+        String token = refreshTokenService.issue("customer0", "First", "Last");
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(token);
+
+        assertThat(rotation.previous().username()).isEqualTo("customer0");
+        assertThat(rotation.refreshToken()).isNotEqualTo(token);
+        assertThat(refreshTokenService.rotate(rotation.refreshToken()).previous().username()).isEqualTo("customer0");
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesItsSuccessors() {
+        String token = refreshTokenService.issue("customer0", "First", "Last");
+        String successor = refreshTokenService.rotate(token).refreshToken();
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(token))
+                .isInstanceOf(AppObjectNotAuthorizedException.class);
+        assertThatThrownBy(() -> refreshTokenService.rotate(successor))
+                .isInstanceOf(AppObjectNotAuthorizedException.class);
+    }
+
+    @Test
+    void expiredAndUnknownTokensAreRejected() {
+        RefreshTokenService expiring = new RefreshTokenService(new InMemoryRefreshTokenStore(), Duration.ZERO);
+        String token = expiring.issue("customer0", "First", "Last");
+
+        assertThatThrownBy(() -> expiring.rotate(token)).isInstanceOf(AppObjectNotAuthorizedException.class);
+        assertThatThrownBy(() -> refreshTokenService.rotate("unknown")).isInstanceOf(AppObjectNotAuthorizedException.class);
+    }
+
+    @Test
+    void revokeAllDropsEveryTokenOfTheUser() {
+        String first = refreshTokenService.issue("customer0", "First", "Last");
+        String second = refreshTokenService.issue("customer0", "First", "Last");
+        String other = refreshTokenService.issue("customer1", "First", "Last");
+
+        refreshTokenService.revokeAll("customer0");
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(first)).isInstanceOf(AppObjectNotAuthorizedException.class);
+        assertThatThrownBy(() -> refreshTokenService.rotate(second)).isInstanceOf(AppObjectNotAuthorizedException.class);
+        assertThat(refreshTokenService.rotate(other).previous().username()).isEqualTo("customer1");
+    }
+}
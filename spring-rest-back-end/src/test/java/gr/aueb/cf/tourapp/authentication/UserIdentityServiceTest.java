@@ -0,0 +1,65 @@
+package gr.aueb.cf.tourapp.authentication;
+
+import gr.aueb.cf.tourapp.model.Customer;
+import gr.aueb.cf.tourapp.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import static gr.aueb.cf.tourapp.Fixtures.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UserIdentityService.class, UserIdentityListener.class})
+class UserIdentityServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserIdentityService userIdentityService;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = entityManager.persistAndFlush(customer(0));
+        entityManager.clear();
+        userIdentityService.evictAll();
+    }
+
+    @Test
+    void resolvedIdentitiesAreServedFromTheCache() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(userIdentityService.resolve("customer0").customerId()).isEqualTo(customer.getId());
+        assertThat(userIdentityService.resolve("customer0").customerId()).isEqualTo(customer.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void updatingAUserEvictsItsIdentity() {
+        assertThat(userIdentityService.resolve("customer0").isActive()).isTrue();
+
+        User user = entityManager.getEntityManager()
+                .createQuery("select u from User u where u.username = 'customer0'", User.class)
+                .getSingleResult();
+        user.setIsActive(false);
+        entityManager.flush();
+
+        assertThat(userIdentityService.resolve("customer0").isActive()).isFalse();
+    }
+}
@@ -0,0 +1,19 @@
+package gr.aueb.cf.tourapp.core.sql;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.*;
+
+/**
+ * Fails the test when its body sends more SQL statements than allowed, counted through the
+ * datasource proxy on the test thread. Keep the body to the call under test: setup statements in
+ * {@code @BeforeEach} are not counted, those in the test method are.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ExtendWith(StatementBudgetExtension.class)
+public @interface MaxStatements {
+
+    int value();
+}
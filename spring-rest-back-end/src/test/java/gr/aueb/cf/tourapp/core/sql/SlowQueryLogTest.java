@@ -0,0 +1,63 @@
+package gr.aueb.cf.tourapp.core.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQueryLogTest {
+
+    private static final String UPDATE = "update users set password = ?, vat = ?, dateOfBirth = ? where id = ?";
+
+    @Test
+    void onlyParameterTypesAreKeptByDefault() throws NoSuchMethodException {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(Duration.ZERO, 10, false);
+
+        slowQueryLog.offer(execution(), List.of(update()), "PUT /api/users");
+
+        assertThat(slowQueryLog.getSlowest()).singleElement()
+                .satisfies(entry -> assertThat(entry.getParameters())
+                        .containsExactly(List.of("String", "String", "null", "Long")));
+    }
+
+    @Test
+    void bindValuesAreKeptWhenEnabled() throws NoSuchMethodException {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(Duration.ZERO, 10, true);
+
+        slowQueryLog.offer(execution(), List.of(update()), "PUT /api/users");
+
+        assertThat(slowQueryLog.getSlowest()).singleElement()
+                .satisfies(entry -> assertThat(entry.getParameters())
+                        .containsExactly(List.of("{bcrypt}$2a$10$hash", "100000001", "null", "7")));
+    }
+
+    private static ExecutionInfo execution() {
+        ExecutionInfo execution = new ExecutionInfo();
+        execution.setElapsedTime(5);
+        return execution;
+    }
+
+    private static QueryInfo update() throws NoSuchMethodException {
+        QueryInfo query = new QueryInfo(UPDATE);
+        // Set out of index order, as Hibernate may
+        query.getParametersList().add(List.of(
+                set("setLong", long.class, 4, 7L),
+                set("setString", String.class, 1, "{bcrypt}$2a$10$hash"),
+                set("setString", String.class, 2, "100000001"),
+                set("setNull", int.class, 3, Types.DATE)));
+        return query;
+    }
+
+    private static ParameterSetOperation set(String method, Class<?> type, int index, Object value)
+            throws NoSuchMethodException {
+        return new ParameterSetOperation(PreparedStatement.class.getMethod(method, int.class, type),
+                new Object[]{index, value});
+    }
+}
@@ -0,0 +1,30 @@
+package gr.aueb.cf.tourapp.core.sql;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(StatementBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), SqlStatistics.start(context.getDisplayName()));
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlStatistics statistics = context.getStore(NAMESPACE).remove(context.getUniqueId(), SqlStatistics.class);
+        statistics.stop();
+
+        int budget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), MaxStatements.class)
+                .orElseThrow().value();
+        assertThat(statistics.getStatements())
+                .as("SQL statements of %s", context.getDisplayName())
+                .isLessThanOrEqualTo(budget);
+    }
+}
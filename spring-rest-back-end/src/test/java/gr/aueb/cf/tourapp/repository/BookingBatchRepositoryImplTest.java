@@ -0,0 +1,79 @@
+package gr.aueb.cf.tourapp.repository;
+
+import gr.aueb.cf.tourapp.authentication.UserIdentityListener;
+import gr.aueb.cf.tourapp.authentication.UserIdentityService;
+import gr.aueb.cf.tourapp.model.Booking;
+import gr.aueb.cf.tourapp.model.Customer;
+import gr.aueb.cf.tourapp.model.Guide;
+import gr.aueb.cf.tourapp.model.Tour;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static gr.aueb.cf.tourapp.Fixtures.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UserIdentityService.class, UserIdentityListener.class})
+class BookingBatchRepositoryImplTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Guide guide;
+    private Booking unassigned;
+    private Booking taken;
+
+    @BeforeEach
+    void setUp() {
+        Tour tour = entityManager.persist(tour("Hiking", 50.0));
+        guide = entityManager.persist(guide(1, tour));
+        Guide other = entityManager.persist(guide(2, tour));
+        Customer customer = entityManager.persist(customer(0));
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        unassigned = entityManager.persist(booking(tomorrow, customer, null, tour));
+        taken = entityManager.persist(booking(tomorrow.plusDays(1), customer, other, tour));
+        entityManager.flush();
+    }
+
+    @Test
+    void onlyBookingsStillWithoutAGuideCountAsApplied() {
+        BookingBatchRepositoryImpl repository = new BookingBatchRepositoryImpl(new JdbcTemplate(dataSource));
+
+        assertThat(repository.assignGuides(plan())).isEqualTo(1);
+    }
+
+    @Test
+    void batchesWithoutRowCountsAreCountedFromTheTable() {
+        BookingBatchRepositoryImpl repository = new BookingBatchRepositoryImpl(new JdbcTemplate(dataSource) {
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                int[] counts = super.batchUpdate(sql, batchArgs);
+                Arrays.fill(counts, Statement.SUCCESS_NO_INFO);
+                return counts;
+            }
+        });
+
+        assertThat(repository.assignGuides(plan())).isEqualTo(1);
+    }
+
+    private Map<Long, Long> plan() {
+        return Map.of(unassigned.getId(), guide.getId(), taken.getId(), guide.getId());
+    }
+}
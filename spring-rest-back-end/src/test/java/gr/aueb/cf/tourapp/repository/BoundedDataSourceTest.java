@@ -0,0 +1,54 @@
+package gr.aueb.cf.tourapp.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedDataSourceTest {
+
+    private final BoundedDataSource dataSource = new BoundedDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:bounded;DB_CLOSE_DELAY=-1", "sa", ""), 1, Duration.ofMillis(200));
+
+    @Test
+    void aCallerBeyondTheLimitTimesOut() throws SQLException {
+        try (Connection ignored = dataSource.getConnection()) {
+            assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        }
+        assertThat(dataSource.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void aWaitingCallerGetsTheConnectionOnceItIsClosed() throws Exception {
+        Connection first = dataSource.getConnection();
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> {
+            try (Connection connection = dataSource.getConnection()) {
+                return connection.isValid(1);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        first.close();
+
+        assertThat(second.get(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void closingTwiceReleasesOnePermit() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        assertThat(connection.isClosed()).isTrue();
+        assertThat(dataSource.availablePermits()).isEqualTo(1);
+    }
+}
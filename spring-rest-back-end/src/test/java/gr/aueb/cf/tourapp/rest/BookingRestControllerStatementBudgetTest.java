@@ -0,0 +1,120 @@
+package gr.aueb.cf.tourapp.rest;
+
+import gr.aueb.cf.tourapp.authentication.UserIdentityService;
+import gr.aueb.cf.tourapp.core.enums.Role;
+import gr.aueb.cf.tourapp.core.sql.MaxStatements;
+import gr.aueb.cf.tourapp.core.sql.SlowQueryLog;
+import gr.aueb.cf.tourapp.core.sql.SqlStatisticsFilter;
+import gr.aueb.cf.tourapp.model.Customer;
+import gr.aueb.cf.tourapp.model.Tour;
+import gr.aueb.cf.tourapp.repository.BookingRepository;
+import gr.aueb.cf.tourapp.repository.CustomerRepository;
+import gr.aueb.cf.tourapp.repository.GuideRepository;
+import gr.aueb.cf.tourapp.repository.TourRepository;
+import gr.aueb.cf.tourapp.security.JwtService;
+import gr.aueb.cf.tourapp.service.TourCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+import static gr.aueb.cf.tourapp.Fixtures.*;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Statement budgets of the booking endpoints, counted through the datasource proxy, with the
+ * stateless token path so that the user is not loaded per request. Every statement is logged as
+ * slow here, to check what the admin endpoint reports.
+ */
+@SpringBootTest(properties = {"app.jwt.stateless=true", "app.sql.slow-query.threshold=PT0S",
+        "app.sql.slow-query.bind-values=true"})
+@AutoConfigureMockMvc
+@Transactional
+class BookingRestControllerStatementBudgetTest {
+
+    private static final int BOOKINGS = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TourRepository tourRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private GuideRepository guideRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserIdentityService userIdentityService;
+
+    @Autowired
+    private TourCatalog tourCatalog;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @BeforeEach
+    void setUp() {
+        Tour tour = tourRepository.save(tour("Hiking", 50.0));
+        guideRepository.save(guide(0, tour));
+        for (int i = 0; i < BOOKINGS; i++) {
+            Customer customer = customerRepository.save(customer(i));
+            bookingRepository.save(booking(LocalDate.now().plusDays(i + 1), customer, null, tour));
+        }
+        bookingRepository.flush();
+
+        userIdentityService.evictAll();
+        tourCatalog.invalidate();
+        slowQueryLog.clear();
+    }
+
+    @Test
+    @MaxStatements(2)
+    void customerBookingsResolveTheCustomerAndLoadTheBookingsOnce() throws Exception {
+        mockMvc.perform(get("/api/customers/bookings").header("Authorization", bearer("customer3", Role.CUSTOMER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string(SqlStatisticsFilter.STATEMENTS_HEADER, "2"))
+                .andExpect(header().string(SqlStatisticsFilter.ROWS_HEADER, "2"))
+                .andExpect(header().doesNotExist(SqlStatisticsFilter.BUDGET_EXCEEDED_HEADER));
+    }
+
+    @Test
+    @MaxStatements(1)
+    void availableBookingsAreLoadedWithOneStatementWhateverTheirNumber() throws Exception {
+        mockMvc.perform(get("/api/guides/available-bookings").header("Authorization", bearer("guide0", Role.GUIDE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(BOOKINGS))
+                .andExpect(header().string(SqlStatisticsFilter.ROWS_HEADER, String.valueOf(BOOKINGS)));
+    }
+
+    @Test
+    void slowStatementsAreReportedWithTheirRequestAndBindValues() throws Exception {
+        mockMvc.perform(get("/api/customers/bookings").header("Authorization", bearer("customer3", Role.CUSTOMER)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/admin/sql/slow-queries").header("Authorization", bearer("admin", Role.ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].request", hasItem("GET /api/customers/bookings")))
+                .andExpect(jsonPath("$[*].parameters[0][0]", hasItem("customer3")));
+    }
+
+    private String bearer(String username, Role role) {
+        return "Bearer " + jwtService.generateToken(username, role.name());
+    }
+}
@@ -0,0 +1,27 @@
+package gr.aueb.cf.tourapp.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BCryptCalibrationTest {
+
+    @Test
+    void strengthStaysWithinTheAllowedRange() {
+        assertThat(BCryptCalibration.strengthFor(Duration.ZERO)).isEqualTo(BCryptCalibration.MIN_STRENGTH);
+        assertThat(BCryptCalibration.strengthFor(Duration.ofHours(1))).isEqualTo(BCryptCalibration.MAX_STRENGTH);
+    }
+
+    @Test
+    void strengthOfReadsTheCostOfPrefixedAndBareHashes() {
+        String hash = BCrypt.hashpw("secret", BCrypt.gensalt(5));
+
+        assertThat(BCryptCalibration.strengthOf(hash)).isEqualTo(5);
+        assertThat(BCryptCalibration.strengthOf("{bcrypt}" + hash)).isEqualTo(5);
+        assertThat(BCryptCalibration.strengthOf("{noop}secret")).isEqualTo(-1);
+        assertThat(BCryptCalibration.strengthOf(null)).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,134 @@
+package gr.aueb.cf.tourapp.security;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * RS256 verification against a keys directory: which kids verify, and when the directory is read
+ * again.
+ */
+class JwtKeySetTest {
+
+    private static KeyPair active;
+    private static KeyPair previous;
+    private static KeyPair other;
+
+    @TempDir
+    private Path keysDir;
+
+    @BeforeAll
+    static void generateKeys() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        active = generator.generateKeyPair();
+        previous = generator.generateKeyPair();
+        other = generator.generateKeyPair();
+    }
+
+    @Test
+    void tokensOfEveryKidInTheDirectoryVerify() throws IOException {
+        JwtService jwtService = new JwtService(rs256(Duration.ofHours(1)), 0, Duration.ZERO);
+
+        assertThat(jwtService.verify(jwtService.generateToken("alice", "CUSTOMER")).getSubject()).isEqualTo("alice");
+        assertThat(jwtService.verify(token("previous", previous.getPrivate(), SignatureAlgorithm.RS256)).getSubject())
+                .isEqualTo("alice");
+    }
+
+    @Test
+    void unknownKidIsRejected() throws IOException {
+        JwtService jwtService = new JwtService(rs256(Duration.ZERO), 0, Duration.ZERO);
+
+        assertThatThrownBy(() -> jwtService.verify(token("other", other.getPrivate(), SignatureAlgorithm.RS256)))
+                .isInstanceOf(SignatureException.class)
+                .hasMessageContaining("Unknown JWT kid other");
+    }
+
+    @Test
+    void removedKidIsRejectedAfterReload() throws IOException {
+        JwtKeySet keySet = rs256(Duration.ofHours(1));
+        JwtService jwtService = new JwtService(keySet, 0, Duration.ZERO);
+        String token = token("previous", previous.getPrivate(), SignatureAlgorithm.RS256);
+        jwtService.verify(token);
+
+        Files.delete(keysDir.resolve("previous.pub.pem"));
+        keySet.reload();
+
+        assertThatThrownBy(() -> jwtService.verify(token)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void activeKidIsKeptWhenItsPublicKeyIsRemoved() throws IOException {
+        JwtKeySet keySet = rs256(Duration.ofHours(1));
+        JwtService jwtService = new JwtService(keySet, 0, Duration.ZERO);
+
+        Files.delete(keysDir.resolve("active.pub.pem"));
+        keySet.reload();
+
+        assertThat(jwtService.verify(jwtService.generateToken("alice", "CUSTOMER")).getSubject()).isEqualTo("alice");
+    }
+
+    @Test
+    void hs256TokenIsRejectedWhileRs256IsActive() throws IOException {
+        JwtService jwtService = new JwtService(rs256(Duration.ZERO), 0, Duration.ZERO);
+        Key secret = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+
+        assertThatThrownBy(() -> jwtService.verify(token("active", secret, SignatureAlgorithm.HS256)))
+                .isInstanceOf(SignatureException.class)
+                .hasMessageContaining("RS256");
+    }
+
+    @Test
+    void unknownKidReloadsTheDirectoryAtMostOncePerInterval() throws IOException {
+        JwtService throttled = new JwtService(rs256(Duration.ofHours(1)), 0, Duration.ZERO);
+        JwtService eager = new JwtService(rs256(Duration.ZERO), 0, Duration.ZERO);
+        String token = token("other", other.getPrivate(), SignatureAlgorithm.RS256);
+
+        writePem(keysDir.resolve("other.pub.pem"), "PUBLIC KEY", other.getPublic().getEncoded());
+
+        assertThatThrownBy(() -> throttled.verify(token)).isInstanceOf(SignatureException.class);
+        assertThat(eager.verify(token).getSubject()).isEqualTo("alice");
+    }
+
+    private JwtKeySet rs256(Duration reloadInterval) throws IOException {
+        writePem(keysDir.resolve("active.pem"), "PRIVATE KEY", active.getPrivate().getEncoded());
+        writePem(keysDir.resolve("active.pub.pem"), "PUBLIC KEY", active.getPublic().getEncoded());
+        writePem(keysDir.resolve("previous.pub.pem"), "PUBLIC KEY", previous.getPublic().getEncoded());
+        return new JwtKeySet(SignatureAlgorithm.RS256, "", keysDir.toString(), "active", reloadInterval);
+    }
+
+    private static String token(String kid, Key key, SignatureAlgorithm algorithm) {
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, kid)
+                .setSubject("alice")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(key, algorithm)
+                .compact();
+    }
+
+    private static void writePem(Path file, String type, byte[] der) throws IOException {
+        Files.writeString(file, "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder().encodeToString(der)
+                + "\n-----END " + type + "-----\n");
+    }
+}
@@ -0,0 +1,132 @@
+package gr.aueb.cf.tourapp.security;
+
+import gr.aueb.cf.tourapp.core.exceptions.AppServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ThrottledPasswordEncoderTest {
+
+    private final CountDownLatch hashing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger heldNow = new AtomicInteger();
+    private final AtomicInteger heldMost = new AtomicInteger();
+    private final Queue<String> hashed = new ConcurrentLinkedQueue<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void callersBeyondTheQueueLimitAreTurnedAwayAtOnce() throws Exception {
+        ThrottledPasswordEncoder encoder = new ThrottledPasswordEncoder(new HoldingEncoder(), 1, 1, 1, Duration.ofSeconds(10));
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("hold-first"), executor);
+        assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"), executor);
+        awaitQueued(encoder);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> encoder.encode("third")).isInstanceOf(AppServiceBusyException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hold-first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+    }
+
+    @Test
+    void queuedCallersGiveUpAfterTheTimeout() throws Exception {
+        ThrottledPasswordEncoder encoder = new ThrottledPasswordEncoder(new HoldingEncoder(), 1, 1, 1, Duration.ofMillis(100));
+        CompletableFuture.supplyAsync(() -> encoder.encode("hold-first"), executor);
+        assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> encoder.matches("second", "second")).isInstanceOf(AppServiceBusyException.class);
+    }
+
+    @Test
+    void loginsKeepTheirShareWhileABulkUploadHashes() throws Exception {
+        ThrottledPasswordEncoder encoder = new ThrottledPasswordEncoder(new HoldingEncoder(), 2, 1, 0, Duration.ofMillis(100));
+        List<CompletableFuture<String>> upload = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> encoder.bulk().encode("hold-row" + i), executor))
+                .toList();
+        assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(encoder.matches("login", "login")).isTrue();
+
+        release.countDown();
+        CompletableFuture.allOf(upload.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertThat(heldMost.get()).isEqualTo(1);
+    }
+
+    @Test
+    void bulkHashesQueueBehindWaitingLogins() throws Exception {
+        ThrottledPasswordEncoder encoder = new ThrottledPasswordEncoder(new HoldingEncoder(), 1, 1, 1, Duration.ofSeconds(10));
+        CompletableFuture.supplyAsync(() -> encoder.encode("hold-first"), executor);
+        assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> login = CompletableFuture.supplyAsync(() -> encoder.encode("login"), executor);
+        awaitQueued(encoder);
+        Thread.sleep(50);
+        CompletableFuture<String> row = CompletableFuture.supplyAsync(() -> encoder.bulk().encode("row"), executor);
+        Thread.sleep(50);
+
+        release.countDown();
+        CompletableFuture.allOf(login, row).get(5, TimeUnit.SECONDS);
+        assertThat(hashed).containsExactly("hold-first", "login", "row");
+    }
+
+    private static void awaitQueued(ThrottledPasswordEncoder encoder) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (encoder.getQueued() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(encoder.getQueued()).isEqualTo(1);
+    }
+
+    /**
+     * Holds the passwords starting with {@code hold} until the test releases them, and records the
+     * order in which passwords were hashed.
+     */
+    private class HoldingEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            String password = rawPassword.toString();
+            hashed.add(password);
+            if (password.startsWith("hold")) {
+                heldMost.accumulateAndGet(heldNow.incrementAndGet(), Math::max);
+                hashing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    heldNow.decrementAndGet();
+                }
+            }
+            return password;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package gr.aueb.cf.tourapp.service;
+
+import gr.aueb.cf.tourapp.authentication.UserIdentityListener;
+import gr.aueb.cf.tourapp.authentication.UserIdentityService;
+import gr.aueb.cf.tourapp.core.exceptions.AppObjectAlreadyExistsException;
+import gr.aueb.cf.tourapp.core.filters.CountCache;
+import gr.aueb.cf.tourapp.dto.BookingInsertDTO;
+import gr.aueb.cf.tourapp.mapper.Mapper;
+import gr.aueb.cf.tourapp.model.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static gr.aueb.cf.tourapp.Fixtures.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({BookingService.class, Mapper.class, BCryptPasswordEncoder.class,
+        UserIdentityService.class, UserIdentityListener.class, CountCache.class, TourCatalog.class,
+        BookingMetrics.class, SimpleMeterRegistry.class})
+class BookingMetricsTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserIdentityService userIdentityService;
+
+    @Autowired
+    private TourCatalog tourCatalog;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Booking unassigned;
+
+    @BeforeEach
+    void setUp() {
+        Tour hiking = entityManager.persist(tour("Hiking", 50.0));
+        entityManager.persist(tour("Gastro", 80.0));
+        Customer customer = entityManager.persist(customer(0));
+        entityManager.persist(guide(1, hiking));
+        entityManager.persist(guide(2, hiking));
+        unassigned = entityManager.persist(booking(LocalDate.now().plusDays(1), customer, null, hiking));
+        entityManager.flush();
+        entityManager.clear();
+
+        userIdentityService.evictAll();
+        tourCatalog.invalidate();
+    }
+
+    @Test
+    void savesClaimsAndConflictsAreCounted() {
+        // The registry lives as long as the cached context, so only the increments of this test count
+        double saved = count("app.bookings.saved");
+        double claims = count("app.bookings.guide.claims");
+        double conflicts = count("app.bookings.conflicts");
+
+        bookingService.saveBooking(new BookingInsertDTO(LocalDate.now().plusDays(100), "Hiking"), "customer0");
+        bookingService.saveBookings(List.of(
+                new BookingInsertDTO(LocalDate.now().plusDays(101), "Hiking"),
+                new BookingInsertDTO(LocalDate.now().plusDays(102), "Gastro")), "customer0");
+        bookingService.updateBookingGuide(unassigned.getId(), "guide1");
+        assertThatThrownBy(() -> bookingService.updateBookingGuide(unassigned.getId(), "guide2"))
+                .isInstanceOf(AppObjectAlreadyExistsException.class);
+        assertThatThrownBy(() -> bookingService.saveBooking(
+                new BookingInsertDTO(LocalDate.now().plusDays(100), "Hiking"), "customer0"))
+                .isInstanceOf(AppObjectAlreadyExistsException.class);
+
+        assertThat(count("app.bookings.saved") - saved).isEqualTo(3);
+        assertThat(count("app.bookings.guide.claims") - claims).isEqualTo(1);
+        assertThat(count("app.bookings.conflicts") - conflicts).isEqualTo(2);
+        assertThat(meterRegistry.get("app.bookings.conflicts").tag("reason", "already_claimed").counter().count())
+                .isGreaterThanOrEqualTo(1);
+    }
+
+    private double count(String counter) {
+        return meterRegistry.get(counter).counters().stream().mapToDouble(Counter::count).sum();
+    }
+}
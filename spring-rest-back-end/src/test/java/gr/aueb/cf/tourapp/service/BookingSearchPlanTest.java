@@ -0,0 +1,179 @@
+package gr.aueb.cf.tourapp.service;
+
+import gr.aueb.cf.tourapp.authentication.UserIdentityListener;
+import gr.aueb.cf.tourapp.authentication.UserIdentityService;
+import gr.aueb.cf.tourapp.core.filters.BookingFilters;
+import gr.aueb.cf.tourapp.core.filters.CountCache;
+import gr.aueb.cf.tourapp.mapper.Mapper;
+import gr.aueb.cf.tourapp.model.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import static gr.aueb.cf.tourapp.Fixtures.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN on the statements of the filtered booking search, to catch filter combinations
+ * that fall back to scanning a whole table.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=gr.aueb.cf.tourapp.service.BookingSearchPlanTest$CapturingInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({BookingService.class, Mapper.class, BCryptPasswordEncoder.class,
+        UserIdentityService.class, UserIdentityListener.class, CountCache.class, TourCatalog.class,
+        BookingMetrics.class, SimpleMeterRegistry.class})
+class BookingSearchPlanTest {
+
+    private static final int BOOKINGS = 200;
+    private static final Pattern FULL_SCAN = Pattern.compile("/\\*\\s*public\\.[^:*]*\\*/", Pattern.CASE_INSENSITIVE);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookingService bookingService;
+
+    private Customer customer;
+    private Guide guide;
+
+    @BeforeEach
+    void setUp() {
+        Tour[] tours = {
+                entityManager.persist(tour("Hiking", 50.0)),
+                entityManager.persist(tour("Gastro", 80.0)),
+                entityManager.persist(tour("Museum", 30.0)),
+                entityManager.persist(tour("Sailing", 120.0))
+        };
+
+        for (int i = 0; i < BOOKINGS; i++) {
+            Customer bookingCustomer = customer(i);
+            bookingCustomer.setIsActive(i % 10 != 0);
+            entityManager.persist(bookingCustomer);
+            Guide bookingGuide = entityManager.persist(guide(i, tours[i % tours.length]));
+            entityManager.persist(booking(LocalDate.now().plusDays(i % 50 + 1), bookingCustomer,
+                    i % 3 == 0 ? null : bookingGuide, tours[i % tours.length]));
+            if (i == 1) {
+                customer = bookingCustomer;
+                guide = bookingGuide;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void filteringByDateUsesAnIndex() throws SQLException {
+        assertNoFullScans(filters -> filters.setBookingDate(LocalDate.now().plusDays(2)));
+    }
+
+    @Test
+    void filteringByCategoryUsesAnIndex() throws SQLException {
+        assertNoFullScans(filters -> {
+            filters.setTourCategory("Hiking");
+            filters.setSortBy("bookingDate");
+        });
+    }
+
+    @Test
+    void filteringByCategoryAndDateUsesAnIndex() throws SQLException {
+        assertNoFullScans(filters -> {
+            filters.setTourCategory("Gastro");
+            filters.setBookingDate(LocalDate.now().plusDays(2));
+        });
+    }
+
+    @Test
+    void filteringByPriceUsesAnIndex() throws SQLException {
+        assertNoFullScans(filters -> filters.setPrice(60.0));
+    }
+
+    @Test
+    void filteringByCustomerUsesAnIndex() throws SQLException {
+        assertNoFullScans(filters -> filters.setCustomerId(customer.getId()));
+    }
+
+    @Test
+    void filteringByGuideUsesAnIndex() throws SQLException {
+        assertNoFullScans(filters -> filters.setGuideId(guide.getId()));
+    }
+
+    @Test
+    void filteringByCustomerLastnameUsesAnIndex() throws SQLException {
+        assertNoFullScans(filters -> {
+            filters.setCustomerLastname("Last customer1");
+            filters.setCustomerIsActive(true);
+        });
+    }
+
+    @Test
+    void filtersNarrowTheResult() {
+        BookingFilters filters = new BookingFilters();
+        filters.setTourCategory("Hiking");
+        filters.setPrice(60.0);
+        filters.setPageSize(100);
+
+        assertThat(bookingService.getBookingsFilteredPaginated(filters).getData())
+                .hasSize(BOOKINGS / 4)
+                .allSatisfy(booking -> assertThat(booking.getTourReadOnlyDTO().getCategory()).isEqualTo("Hiking"));
+
+        filters.setPrice(40.0);
+        assertThat(bookingService.getBookingsFilteredPaginated(filters).getData()).isEmpty();
+    }
+
+    private void assertNoFullScans(Consumer<BookingFilters> filter) throws SQLException {
+        BookingFilters filters = new BookingFilters();
+        filter.accept(filters);
+        bookingService.getBookingsFilteredPaginated(filters);
+
+        List<String> statements = List.copyOf(CapturingInspector.STATEMENTS);
+        assertThat(statements).isNotEmpty();
+        for (String sql : statements) {
+            // Only the page bounds are still bound as parameters
+            String plan = explain(sql.replace("?", "5"));
+            // H2 names the index and its condition for every table; a bare index name is a scan of all rows
+            assertThat(FULL_SCAN.matcher(plan).find()).as(plan).isFalse();
+        }
+    }
+
+    private String explain(String sql) throws SQLException {
+        try (Statement statement = entityManager.getEntityManager().unwrap(Session.class)
+                .doReturningWork(connection -> connection.createStatement());
+             ResultSet plan = statement.executeQuery("explain " + sql)) {
+            StringBuilder result = new StringBuilder();
+            while (plan.next()) result.append(plan.getString(1));
+            return result.toString();
+        }
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.trim().toLowerCase().startsWith("select")) STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package gr.aueb.cf.tourapp.service;
+
+import gr.aueb.cf.tourapp.authentication.UserIdentityListener;
+import gr.aueb.cf.tourapp.authentication.UserIdentityService;
+import gr.aueb.cf.tourapp.core.exceptions.AppObjectAlreadyExistsException;
+import gr.aueb.cf.tourapp.core.filters.CountCache;
+import gr.aueb.cf.tourapp.dto.BookingInsertDTO;
+import gr.aueb.cf.tourapp.mapper.Mapper;
+import gr.aueb.cf.tourapp.model.*;
+import gr.aueb.cf.tourapp.repository.BookingRepository;
+import gr.aueb.cf.tourapp.repository.CustomerRepository;
+import gr.aueb.cf.tourapp.repository.GuideRepository;
+import gr.aueb.cf.tourapp.repository.TourRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static gr.aueb.cf.tourapp.Fixtures.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs outside the per-test transaction so that every booking attempt commits on its own.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({BookingService.class, Mapper.class, BCryptPasswordEncoder.class,
+        UserIdentityService.class, UserIdentityListener.class, CountCache.class, TourCatalog.class,
+        BookingMetrics.class, SimpleMeterRegistry.class})
+class BookingServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int GUIDES = 32;
+    private static final int POOL = 10;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private GuideRepository guideRepository;
+
+    @Autowired
+    private TourRepository tourRepository;
+
+    @Autowired
+    private TourCatalog tourCatalog;
+
+    private Tour tour;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        tour = tourRepository.save(tour("Hiking", 50.0));
+        customer = customerRepository.save(customer("racer", "300000001"));
+        tourCatalog.invalidate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        customerRepository.deleteAll();
+        guideRepository.deleteAll();
+        tourRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentBookingsOfTheSameCustomerAndDateHaveExactlyOneWinner() throws Exception {
+        LocalDate date = LocalDate.now().plusDays(7);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                attempts.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        bookingService.saveBooking(new BookingInsertDTO(date, "Hiking"), "racer");
+                        return true;
+                    } catch (AppObjectAlreadyExistsException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int winners = 0;
+            for (Future<Boolean> attempt : attempts) {
+                if (attempt.get(30, TimeUnit.SECONDS)) winners++;
+            }
+            assertThat(winners).isEqualTo(1);
+            assertThat(bookingRepository.count()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void guidesClaimingTheSamePoolGetEachBookingExactlyOnce() throws Exception {
+        List<Long> pool = new ArrayList<>();
+        for (int i = 0; i < POOL; i++) {
+            pool.add(bookingRepository.save(booking(LocalDate.now().plusDays(i + 1), customer, null, tour)).getId());
+        }
+        List<String> guides = new ArrayList<>();
+        for (int i = 0; i < GUIDES; i++) {
+            guideRepository.save(guide("claimer" + i, String.valueOf(400000000 + i), tour));
+            guides.add("claimer" + i);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(GUIDES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> claims = new ArrayList<>();
+
+        try {
+            for (String guide : guides) {
+                claims.add(executor.submit(() -> {
+                    List<Long> order = new ArrayList<>(pool);
+                    Collections.shuffle(order);
+                    start.await();
+
+                    int won = 0;
+                    for (Long bookingId : order) {
+                        try {
+                            bookingService.updateBookingGuide(bookingId, guide);
+                            won++;
+                        } catch (AppObjectAlreadyExistsException e) {
+                            // lost the race for this booking
+                        }
+                    }
+                    return won;
+                }));
+            }
+            start.countDown();
+
+            int won = 0;
+            for (Future<Integer> claim : claims) {
+                won += claim.get(60, TimeUnit.SECONDS);
+            }
+            assertThat(won).isEqualTo(POOL);
+            assertThat(bookingRepository.findAllById(pool)).allSatisfy(booking ->
+                    assertThat(booking.getGuide()).isNotNull());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package gr.aueb.cf.tourapp.service;
+
+import gr.aueb.cf.tourapp.authentication.UserIdentityListener;
+import gr.aueb.cf.tourapp.authentication.UserIdentityService;
+import gr.aueb.cf.tourapp.core.enums.CountMode;
+import gr.aueb.cf.tourapp.core.exceptions.AppObjectAlreadyExistsException;
+import gr.aueb.cf.tourapp.core.exceptions.AppObjectInvalidArgumentException;
+import gr.aueb.cf.tourapp.core.exceptions.AppObjectNotFoundException;
+import gr.aueb.cf.tourapp.core.filters.BookingFilters;
+import gr.aueb.cf.tourapp.core.filters.CountCache;
+import gr.aueb.cf.tourapp.core.filters.Paginated;
+import gr.aueb.cf.tourapp.dto.BookingInsertDTO;
+import gr.aueb.cf.tourapp.dto.BookingReadOnlyDTO;
+import gr.aueb.cf.tourapp.mapper.Mapper;
+import gr.aueb.cf.tourapp.model.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static gr.aueb.cf.tourapp.Fixtures.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({BookingService.class, Mapper.class, BCryptPasswordEncoder.class,
+        UserIdentityService.class, UserIdentityListener.class, CountCache.class, TourCatalog.class})
+class BookingServiceQueryCountTest {
+
+    private static final int BOOKINGS = 12;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserIdentityService userIdentityService;
+
+    @Autowired
+    private TourCatalog tourCatalog;
+
+    @MockitoBean
+    private BookingMetrics bookingMetrics;
+
+    private Statistics statistics;
+
+    private final List<Long> bookingIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Tour hiking = entityManager.persist(tour("Hiking", 50.0));
+        Tour gastro = entityManager.persist(tour("Gastro", 80.0));
+
+        for (int i = 0; i < BOOKINGS; i++) {
+            Tour tour = i % 2 == 0 ? hiking : gastro;
+            Customer customer = entityManager.persist(customer(i));
+            Guide guide = entityManager.persist(guide(i, tour));
+            Booking booking = entityManager.persist(booking(LocalDate.now().plusDays(i + 1), customer,
+                    i % 3 == 0 ? null : guide, tour));
+            bookingIds.add(booking.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        userIdentityService.evictAll();
+        tourCatalog.invalidate();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllBookingsRunsASingleStatement() {
+        List<BookingReadOnlyDTO> bookings = bookingService.getAllBookings();
+
+        assertThat(bookings).hasSize(BOOKINGS);
+        assertThat(bookings).allSatisfy(booking -> {
+            assertThat(booking.getCustomerReadOnlyDTO().getUserReadOnlyDTO().getLastname()).isNotNull();
+            assertThat(booking.getTourReadOnlyDTO().getCategory()).isNotNull();
+        });
+        assertStatements(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void getPaginatedBookingsRunsDataAndCountStatementsOnly() {
+        Paginated<BookingReadOnlyDTO> page = bookingService.getPaginatedBookings(1, 5, null, CountMode.EXACT);
+
+        assertThat(page.getData()).hasSize(5);
+        assertThat(page.getTotalElements()).isEqualTo(BOOKINGS);
+        assertStatements(2);
+    }
+
+    @Test
+    void countFreePagesRunTheDataStatementOnly() {
+        Paginated<BookingReadOnlyDTO> page = bookingService.getPaginatedBookings(1, 5, null, CountMode.NONE);
+
+        assertThat(page.getData()).hasSize(5);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getTotalElements()).isEqualTo(-1);
+        assertStatements(1);
+    }
+
+    @Test
+    void cachedCountsAreReusedAcrossPagesUntilAWrite() {
+        assertThat(bookingService.getPaginatedBookings(0, 5, null, CountMode.CACHED).getTotalElements()).isEqualTo(BOOKINGS);
+        assertStatements(2);
+
+        statistics.clear();
+        assertThat(bookingService.getPaginatedBookings(1, 5, null, CountMode.CACHED).getTotalElements()).isEqualTo(BOOKINGS);
+        assertStatements(1);
+
+        bookingService.saveBooking(new BookingInsertDTO(LocalDate.now().plusDays(100), "Hiking"), "customer0");
+        assertThat(bookingService.getPaginatedBookings(1, 5, null, CountMode.CACHED).getTotalElements()).isEqualTo(BOOKINGS + 1);
+    }
+
+    @Test
+    void keysetPagesWalkEveryBookingOnceWithOneStatementEach() {
+        // Bookings sharing a date, so that the id has to break the tie
+        for (int i = 1; i <= 3; i++) {
+            bookingService.saveBooking(new BookingInsertDTO(LocalDate.now().plusDays(1), "Hiking"), "customer" + i);
+        }
+        statistics.clear();
+
+        List<BookingReadOnlyDTO> seen = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            Paginated<BookingReadOnlyDTO> page = bookingService.getPaginatedBookings(0, 5, cursor, CountMode.EXACT);
+            seen.addAll(page.getData());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).extracting(BookingReadOnlyDTO::getId).doesNotHaveDuplicates().hasSize(BOOKINGS + 3);
+        assertThat(seen).extracting(BookingReadOnlyDTO::getBookingDate).isSorted();
+        assertStatements(pages);
+    }
+
+    @Test
+    void keysetPagesByTourCategoryKeepBookingsWithoutATour() {
+        // Sorted last descending, so it is only reached through a cursor on the tour category
+        Customer customer = entityManager.persist(customer(BOOKINGS));
+        Booking noTour = entityManager.persist(booking(LocalDate.now().plusDays(1), customer, null, null));
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        BookingFilters filters = new BookingFilters();
+        filters.setPageSize(5);
+        filters.setSortBy("tour.category");
+        filters.setSortDirection(Sort.Direction.DESC);
+        filters.setCursor("");
+
+        List<BookingReadOnlyDTO> seen = new ArrayList<>();
+        int pages = 0;
+        do {
+            Paginated<BookingReadOnlyDTO> page = bookingService.getBookingsFilteredPaginated(filters);
+            seen.addAll(page.getData());
+            filters.setCursor(page.getNextCursor());
+            pages++;
+        } while (filters.getCursor() != null);
+
+        assertThat(seen).extracting(BookingReadOnlyDTO::getId).doesNotHaveDuplicates().hasSize(BOOKINGS + 1);
+        assertThat(seen.get(seen.size() - 1).getId()).isEqualTo(noTour.getId());
+        assertStatements(pages);
+    }
+
+    @Test
+    void keysetPagesRejectAForeignCursor() {
+        assertThatThrownBy(() -> bookingService.getPaginatedBookings(0, 5, "not-a-cursor", CountMode.EXACT))
+                .isInstanceOf(AppObjectInvalidArgumentException.class);
+    }
+
+    @Test
+    void saveBookingLeavesTheUniquenessCheckToTheDatabase() {
+        BookingReadOnlyDTO booking = bookingService.saveBooking(
+                new BookingInsertDTO(LocalDate.now().plusDays(100), "Hiking"), "customer0");
+
+        assertThat(booking.getId()).isNotNull();
+        assertStatements(4);
+    }
+
+    @Test
+    void saveBookingResolvesTheTourFromTheCatalog() {
+        bookingService.saveBooking(new BookingInsertDTO(LocalDate.now().plusDays(100), "Hiking"), "customer0");
+        statistics.clear();
+
+        bookingService.saveBooking(new BookingInsertDTO(LocalDate.now().plusDays(100), "gastro"), "customer1");
+        assertStatements(3);
+    }
+
+    @Test
+    void saveBookingRejectsASecondBookingOnTheSameDate() {
+        assertThatThrownBy(() -> bookingService.saveBooking(
+                new BookingInsertDTO(LocalDate.now().plusDays(1), "Hiking"), "customer0"))
+                .isInstanceOf(AppObjectAlreadyExistsException.class);
+        assertStatements(3);
+    }
+
+    @Test
+    void saveBookingsInsertsInOneJdbcBatch() {
+        List<BookingInsertDTO> insertDTOs = new ArrayList<>();
+        for (int day = 100; day < 160; day++) {
+            insertDTOs.add(new BookingInsertDTO(LocalDate.now().plusDays(day), day % 2 == 0 ? "Hiking" : "Gastro"));
+        }
+
+        List<BookingReadOnlyDTO> bookings = bookingService.saveBookings(insertDTOs, "customer0");
+
+        assertThat(bookings).hasSize(60).extracting(BookingReadOnlyDTO::getBookingDate)
+                .containsExactlyElementsOf(insertDTOs.stream().map(BookingInsertDTO::getBookingDate).toList());
+        // The identity, the tours and the result; the rows go out in one JDBC batch next to Hibernate
+        assertStatements(3);
+    }
+
+    @Test
+    void saveBookingsRejectsADateAlreadyBookedAndInsertsNone() {
+        List<BookingInsertDTO> insertDTOs = List.of(
+                new BookingInsertDTO(LocalDate.now().plusDays(100), "Hiking"),
+                new BookingInsertDTO(LocalDate.now().plusDays(1), "Hiking"));
+
+        assertThatThrownBy(() -> bookingService.saveBookings(insertDTOs, "customer0"))
+                .isInstanceOf(AppObjectAlreadyExistsException.class);
+    }
+
+    @Test
+    void saveBookingsRejectsTwoBookingsOnTheSameDate() {
+        List<BookingInsertDTO> insertDTOs = List.of(
+                new BookingInsertDTO(LocalDate.now().plusDays(100), "Hiking"),
+                new BookingInsertDTO(LocalDate.now().plusDays(100), "Gastro"));
+
+        assertThatThrownBy(() -> bookingService.saveBookings(insertDTOs, "customer0"))
+                .isInstanceOf(AppObjectInvalidArgumentException.class);
+        assertStatements(1);
+    }
+
+    @Test
+    void updateBookingGuideClaimsWithASingleUpdate() {
+        BookingReadOnlyDTO booking = bookingService.updateBookingGuide(bookingIds.get(0), "guide3");
+
+        assertThat(booking.getGuideReadOnlyDTO()).isNotNull();
+        assertStatements(3);
+    }
+
+    @Test
+    void updateBookingGuideDoesNotOverwriteAnotherGuide() {
+        assertThatThrownBy(() -> bookingService.updateBookingGuide(bookingIds.get(1), "guide3"))
+                .isInstanceOf(AppObjectAlreadyExistsException.class);
+        assertThat(bookingService.findBookingById(bookingIds.get(1)).getGuideReadOnlyDTO().getUserReadOnlyDTO()
+                .getLastname()).isEqualTo("Last guide1");
+    }
+
+    @Test
+    void updateBookingGuideRejectsASecondBookingOnTheSameDate() {
+        // guide1 already guides the booking of day 2
+        Long sameDay = bookingService.saveBooking(
+                new BookingInsertDTO(LocalDate.now().plusDays(2), "Gastro"), "customer0").getId();
+
+        assertThatThrownBy(() -> bookingService.updateBookingGuide(sameDay, "guide1"))
+                .isInstanceOf(AppObjectAlreadyExistsException.class);
+    }
+
+    @Test
+    void findBookingByGuideUsernameRunsTheBookingQueryOnce() {
+        assertThat(bookingService.findBookingByGuideUsername("guide1")).hasSize(1);
+        assertStatements(2);
+    }
+
+    @Test
+    void resolvedIdentitiesAreNotLookedUpAgain() {
+        bookingService.findBookingByGuideUsername("guide1");
+        statistics.clear();
+
+        assertThat(bookingService.findBookingByGuideUsername("guide1")).hasSize(1);
+        assertStatements(1);
+    }
+
+    @Test
+    void findBookingByBookingDateAndCustomerUsernameRunsTheBookingQueryOnce() {
+        assertThat(bookingService.findBookingByBookingDateAndCustomerUsername("customer0")).hasSize(1);
+        assertStatements(2);
+    }
+
+    @Test
+    void findBookingByBookingDateAndGuideIsNullRunsASingleStatement() {
+        assertThat(bookingService.findBookingByBookingDateAndGuideIsNull()).hasSize(BOOKINGS / 3);
+        assertStatements(1);
+    }
+
+    @Test
+    void deleteBookingByIdIssuesASingleDelete() {
+        bookingService.deleteBookingById(bookingIds.get(0), "customer0");
+
+        assertThatThrownBy(() -> bookingService.findBookingById(bookingIds.get(0)))
+                .isInstanceOf(AppObjectNotFoundException.class);
+        assertStatements(3);
+    }
+
+    @Test
+    void deleteBookingByIdOfAnotherCustomerIsNotFound() {
+        assertThatThrownBy(() -> bookingService.deleteBookingById(bookingIds.get(1), "customer0"))
+                .isInstanceOf(AppObjectNotFoundException.class);
+        assertStatements(2);
+    }
+
+    @Test
+    void findBookingByIdRunsASingleStatement() {
+        assertThat(bookingService.findBookingById(bookingIds.get(1)).getGuideReadOnlyDTO()).isNotNull();
+        assertStatements(1);
+    }
+
+    private void assertStatements(long expected) {
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,111 @@
+package gr.aueb.cf.tourapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gr.aueb.cf.tourapp.authentication.UserIdentityListener;
+import gr.aueb.cf.tourapp.authentication.UserIdentityService;
+import gr.aueb.cf.tourapp.core.enums.ExportFormat;
+import gr.aueb.cf.tourapp.mapper.Mapper;
+import gr.aueb.cf.tourapp.model.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static gr.aueb.cf.tourapp.Fixtures.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ExportService.class, Mapper.class, BCryptPasswordEncoder.class,
+        UserIdentityService.class, UserIdentityListener.class, TourCatalog.class})
+class ExportServiceTest {
+
+    private static final int BOOKINGS = 30;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Tour tour = entityManager.persist(tour("Hiking", 50.0));
+        for (int i = 0; i < BOOKINGS; i++) {
+            Customer customer = customer(i);
+            customer.getUser().setLastname("Last, \"" + i + "\"");
+            entityManager.persist(customer);
+            entityManager.persist(booking(LocalDate.now().plusDays(i + 1), customer, null, tour));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void bookingsAreStreamedAsOneJsonObjectPerLineWithASingleStatement() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportBookings(ExportFormat.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(BOOKINGS);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.path("customerReadOnlyDTO").path("userReadOnlyDTO").path("lastname").asText()).isEqualTo("Last, \"0\"");
+        assertThat(first.path("tourReadOnlyDTO").path("category").asText()).isEqualTo("Hiking");
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void customersAreStreamedAsCsvWithQuotedFields() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportCustomers(ExportFormat.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(BOOKINGS + 1);
+        assertThat(lines.get(0)).isEqualTo("id,uuid,isActive,firstname,lastname,vat");
+        assertThat(lines.get(1)).endsWith(",true,First customer0,\"Last, \"\"0\"\"\",100000000");
+    }
+
+    @Test
+    void csvCellsThatWouldRunAsFormulasAreNeutralised() throws IOException {
+        Customer customer = customer(BOOKINGS);
+        customer.getUser().setFirstname("=HYPERLINK(\"http://example.com\")");
+        customer.getUser().setLastname("@SUM(A1)");
+        entityManager.persistAndFlush(customer);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportCustomers(ExportFormat.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines.get(BOOKINGS + 1)).endsWith(",true,\"'=HYPERLINK(\"\"http://example.com\"\")\",'@SUM(A1),100000030");
+    }
+}
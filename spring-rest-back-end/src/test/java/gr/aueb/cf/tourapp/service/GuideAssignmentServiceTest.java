@@ -0,0 +1,132 @@
+package gr.aueb.cf.tourapp.service;
+
+import gr.aueb.cf.tourapp.authentication.UserIdentityListener;
+import gr.aueb.cf.tourapp.authentication.UserIdentityService;
+import gr.aueb.cf.tourapp.Fixtures;
+import gr.aueb.cf.tourapp.core.filters.CountCache;
+import gr.aueb.cf.tourapp.dto.GuideAssignmentDTO;
+import gr.aueb.cf.tourapp.dto.GuideAssignmentPlanDTO;
+import gr.aueb.cf.tourapp.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({GuideAssignmentService.class, BCryptPasswordEncoder.class,
+        UserIdentityService.class, UserIdentityListener.class, CountCache.class})
+class GuideAssignmentServiceTest {
+
+    private static final int DAYS = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private GuideAssignmentService guideAssignmentService;
+
+    private Guide busyGuide;
+    private Guide freeGuide;
+    private Guide inactiveGuide;
+    private Guide sailingGuide;
+    private LocalDate tomorrow;
+
+    @BeforeEach
+    void setUp() {
+        tomorrow = LocalDate.now().plusDays(1);
+        Tour hiking = entityManager.persist(Fixtures.tour("Hiking", 50.0));
+        Tour sailing = entityManager.persist(Fixtures.tour("Sailing", 120.0));
+        busyGuide = guide(1, hiking, true);
+        freeGuide = guide(2, hiking, true);
+        inactiveGuide = guide(3, hiking, false);
+        sailingGuide = guide(4, sailing, true);
+
+        // Three hiking bookings a day for two hiking guides, one of them already busy tomorrow
+        int customers = 0;
+        for (int day = 0; day < DAYS; day++) {
+            for (int i = 0; i < 3; i++) {
+                booking(customer(customers++), hiking, tomorrow.plusDays(day), null);
+            }
+        }
+        booking(customer(customers++), hiking, tomorrow, busyGuide);
+        booking(customer(customers), hiking, LocalDate.now().minusDays(1), null);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void planUsesEveryFreeActiveGuideOfTheTourOncePerDate() {
+        GuideAssignmentPlanDTO plan = guideAssignmentService.planAssignments();
+
+        assertThat(plan.isDryRun()).isTrue();
+        assertThat(plan.getUnassignedBookings()).isEqualTo(DAYS * 3);
+        // Tomorrow only the free guide is left; on the other days both hiking guides take one
+        assertThat(plan.getPlanned()).isEqualTo(1 + (DAYS - 1) * 2);
+        assertThat(plan.getAssignments())
+                .extracting(GuideAssignmentDTO::getGuideId)
+                .doesNotContain(inactiveGuide.getId(), sailingGuide.getId());
+        Map<LocalDate, List<Long>> guidesByDate = plan.getAssignments().stream()
+                .collect(Collectors.groupingBy(GuideAssignmentDTO::getBookingDate,
+                        Collectors.mapping(GuideAssignmentDTO::getGuideId, Collectors.toList())));
+        assertThat(guidesByDate.get(tomorrow)).containsExactly(freeGuide.getId());
+        guidesByDate.values().forEach(guideIds -> assertThat(guideIds).doesNotHaveDuplicates());
+    }
+
+    @Test
+    void dryRunLeavesTheBookingsUnassigned() {
+        guideAssignmentService.planAssignments();
+        entityManager.clear();
+
+        assertThat(assignedBookings()).isEqualTo(1);
+    }
+
+    @Test
+    void assignGuidesAppliesThePlanAndTheNextRunFindsNothingToDo() {
+        GuideAssignmentPlanDTO applied = guideAssignmentService.assignGuides();
+        entityManager.clear();
+
+        assertThat(applied.isDryRun()).isFalse();
+        assertThat(applied.getApplied()).isEqualTo(applied.getPlanned());
+        assertThat(assignedBookings()).isEqualTo(1 + applied.getApplied());
+        for (GuideAssignmentDTO assignment : applied.getAssignments()) {
+            assertThat(entityManager.find(Booking.class, assignment.getBookingId()).getGuide().getId())
+                    .isEqualTo(assignment.getGuideId());
+        }
+
+        GuideAssignmentPlanDTO next = guideAssignmentService.assignGuides();
+        assertThat(next.getUnassignedBookings()).isEqualTo(DAYS * 3 - applied.getApplied());
+        assertThat(next.getApplied()).isZero();
+    }
+
+    private long assignedBookings() {
+        return entityManager.getEntityManager()
+                .createQuery("select count(b) from Booking b where b.guide is not null", Long.class)
+                .getSingleResult();
+    }
+
+    private Guide guide(int i, Tour tour, boolean active) {
+        Guide guide = Fixtures.guide(i, tour);
+        guide.setIsActive(active);
+        return entityManager.persist(guide);
+    }
+
+    private Customer customer(int i) {
+        return entityManager.persist(Fixtures.customer(i));
+    }
+
+    private void booking(Customer customer, Tour tour, LocalDate date, Guide guide) {
+        entityManager.persist(Fixtures.booking(date, customer, guide, tour));
+    }
+}
@@ -0,0 +1,158 @@
+package gr.aueb.cf.tourapp.service;
+
+import gr.aueb.cf.tourapp.authentication.UserIdentityListener;
+import gr.aueb.cf.tourapp.authentication.UserIdentityService;
+import gr.aueb.cf.tourapp.core.enums.ExportFormat;
+import gr.aueb.cf.tourapp.core.enums.RegistrationStatus;
+import gr.aueb.cf.tourapp.core.enums.Role;
+import gr.aueb.cf.tourapp.core.filters.CountCache;
+import gr.aueb.cf.tourapp.dto.RegistrationResultDTO;
+import gr.aueb.cf.tourapp.mapper.Mapper;
+import gr.aueb.cf.tourapp.model.*;
+import gr.aueb.cf.tourapp.repository.CustomerRepository;
+import gr.aueb.cf.tourapp.repository.GuideRepository;
+import gr.aueb.cf.tourapp.repository.TourRepository;
+import gr.aueb.cf.tourapp.repository.UserRepository;
+import gr.aueb.cf.tourapp.security.PasswordEncoderConfiguration;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static gr.aueb.cf.tourapp.Fixtures.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {"app.registration.chunk-size=2", "app.password.bcrypt.strength=4"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({RegistrationService.class, Mapper.class, PasswordEncoderConfiguration.class,
+        UserIdentityService.class, UserIdentityListener.class, CountCache.class, TourCatalog.class})
+class RegistrationServiceTest {
+
+    private static final String HEADER = "username,password,firstname,lastname,email,vat,dateOfBirth,genderType,nationality,isActive";
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private GuideRepository guideRepository;
+
+    @Autowired
+    private TourRepository tourRepository;
+
+    @Autowired
+    private TourCatalog tourCatalog;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Tour tour;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        tour = tourRepository.save(tour("Hiking", 50.0));
+        tourCatalog.invalidate();
+        customerRepository.save(customer("taken@test.com", "100000001"));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        customerRepository.deleteAll();
+        guideRepository.deleteAll();
+        tourRepository.deleteAll();
+    }
+
+    @Test
+    void csvRowsAreCheckedOncePerChunkAndGetOneResultEach() throws IOException {
+        String csv = String.join("\n", HEADER,
+                "new1@test.com,Passw0rd!,Anna,Papa,new1@test.com,100000002,1990-01-01,FEMALE,Greek,true",
+                "taken@test.com,Passw0rd!,Nikos,Taken,,100000003,1990-01-01,MALE,Greek,true",
+                "new2@test.com,Passw0rd!,Bad,Vat,,12,1990-01-01,MALE,Greek,true",
+                "new3@test.com,Passw0rd!,Same,Vat,,100000002,1990-01-01,MALE,Greek,true",
+                "new4@test.com,Passw0rd!,Eleni,\"Last, \"\"quoted\"\"\",,100000004,1990-01-01,FEMALE,Greek,false");
+
+        List<RegistrationResultDTO> results = registrationService.registerCustomers(ExportFormat.CSV, stream(csv));
+
+        assertThat(results).extracting(RegistrationResultDTO::getStatus).containsExactly(
+                RegistrationStatus.CREATED, RegistrationStatus.DUPLICATE, RegistrationStatus.INVALID,
+                RegistrationStatus.DUPLICATE, RegistrationStatus.CREATED);
+        assertThat(results.get(0).getUuid()).isNotNull();
+        // Chunks of two rows; the third chunk has no rows left to check
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(2);
+
+        User quoted = userRepository.findByUsername("new4@test.com").orElseThrow();
+        assertThat(quoted.getLastname()).isEqualTo("Last, \"quoted\"");
+        assertThat(quoted.getRole()).isEqualTo(Role.CUSTOMER);
+        assertThat(passwordEncoder.matches("Passw0rd!", quoted.getPassword())).isTrue();
+        assertThat(customerRepository.findById(results.get(4).getId()).orElseThrow().getIsActive()).isFalse();
+    }
+
+    @Test
+    void jsonGuidesGetTheGuideRoleAndTheirTour() throws IOException {
+        String json = """
+                [
+                  {"isActive": true, "tourCategory": "hiking", "userInsertDTO": {"username": "guide1@test.com",
+                    "password": "Passw0rd!", "firstname": "Giorgos", "lastname": "Guide", "vat": "200000001",
+                    "dateOfBirth": "1985-05-05", "genderType": "MALE", "nationality": "Greek", "role": "ADMIN", "isActive": true}},
+                  {"isActive": true, "tourCategory": "Diving", "userInsertDTO": {"username": "guide2@test.com",
+                    "password": "Passw0rd!", "firstname": "Maria", "lastname": "Guide", "vat": "200000002",
+                    "dateOfBirth": "1985-05-05", "genderType": "FEMALE", "nationality": "Greek", "isActive": true}}
+                ]
+                """;
+
+        List<RegistrationResultDTO> results = registrationService.registerGuides(ExportFormat.NDJSON, stream(json));
+
+        assertThat(results).extracting(RegistrationResultDTO::getStatus)
+                .containsExactly(RegistrationStatus.CREATED, RegistrationStatus.INVALID);
+        assertThat(userRepository.findByUsername("guide1@test.com").orElseThrow().getRole()).isEqualTo(Role.GUIDE);
+        assertThat(guideRepository.findById(results.get(0).getId()).orElseThrow().getTour().getId()).isEqualTo(tour.getId());
+    }
+
+    @Test
+    void malformedJsonStopsTheUploadWithAResultForTheBrokenRow() throws IOException {
+        String ndjson = """
+                {"isActive": true, "userInsertDTO": {"username": "late@test.com"}}
+                {"isActive": tru
+                """;
+
+        List<RegistrationResultDTO> results = registrationService.registerCustomers(ExportFormat.NDJSON, stream(ndjson));
+
+        assertThat(results).extracting(RegistrationResultDTO::getStatus)
+                .containsExactly(RegistrationStatus.INVALID, RegistrationStatus.INVALID);
+        assertThat(results.get(1).getMessage()).startsWith("Row could not be read");
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
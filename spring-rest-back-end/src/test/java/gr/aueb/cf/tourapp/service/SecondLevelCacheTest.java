@@ -0,0 +1,80 @@
+package gr.aueb.cf.tourapp.service;
+
+import gr.aueb.cf.tourapp.dto.CacheRegionStatisticsDTO;
+import gr.aueb.cf.tourapp.model.Tour;
+import gr.aueb.cf.tourapp.repository.TourRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static gr.aueb.cf.tourapp.Fixtures.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs outside a test transaction, since entries only reach the second-level cache once a
+ * transaction commits.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(CacheStatisticsService.class)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private TourRepository tourRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    private Statistics statistics;
+    private Tour tour;
+
+    @BeforeEach
+    void setUp() {
+        tour = tourRepository.save(tour("Hiking", 50.0));
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tourRepository.deleteAll();
+    }
+
+    @Test
+    void toursAreLoadedOnceAndThenServedFromTheCache() {
+        assertThat(tourRepository.findById(tour.getId())).isPresent();
+        assertThat(tourRepository.findById(tour.getId())).isPresent();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+        assertThat(cacheStatisticsService.getRegionStatistics())
+                .filteredOn(region -> region.getRegion().equals("tours"))
+                .singleElement()
+                .satisfies(region -> {
+                    assertThat(region.getHitCount()).isEqualTo(1);
+                    assertThat(region.getMissCount()).isEqualTo(1);
+                    assertThat(region.getHitRatio()).isEqualTo(0.5);
+                });
+    }
+
+    @Test
+    void everyEntityRegionIsReported() {
+        assertThat(cacheStatisticsService.getRegionStatistics())
+                .extracting(CacheRegionStatisticsDTO::getRegion)
+                .contains("customers", "guides", "tours");
+    }
+}
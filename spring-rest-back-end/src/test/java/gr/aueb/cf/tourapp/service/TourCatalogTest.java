@@ -0,0 +1,69 @@
+package gr.aueb.cf.tourapp.service;
+
+import gr.aueb.cf.tourapp.model.Tour;
+import gr.aueb.cf.tourapp.repository.projections.TourProjection;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static gr.aueb.cf.tourapp.Fixtures.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "app.tours.catalog-ttl=PT0.2S")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TourCatalog.class)
+class TourCatalogTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TourCatalog tourCatalog;
+
+    @Test
+    void toursAreServedFromMemoryUntilInvalidated() {
+        entityManager.persist(tour("Hiking", 50.0));
+        entityManager.persistAndFlush(tour("Gastro", 80.0));
+        tourCatalog.invalidate();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(tourCatalog.findAll()).hasSize(2);
+        assertThat(tourCatalog.findByCategory("Hiking")).isPresent();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        entityManager.persistAndFlush(tour("Museum", 30.0));
+        assertThat(tourCatalog.findByCategory("Museum")).isEmpty();
+
+        tourCatalog.invalidate();
+        assertThat(tourCatalog.findByCategory("Museum")).isPresent();
+        assertThat(tourCatalog.findAll()).hasSize(3);
+    }
+
+    @Test
+    void writeMadeOutsideTheCatalogIsVisibleAfterTheTtl() throws InterruptedException {
+        Tour tour = entityManager.persistAndFlush(tour("Hiking", 50.0));
+        tourCatalog.invalidate();
+        assertThat(tourCatalog.findById(tour.getId())).map(TourProjection::category).contains("Hiking");
+
+        jdbcTemplate.update("update tours set category = ? where id = ?", "Climbing", tour.getId());
+        assertThat(tourCatalog.findById(tour.getId())).map(TourProjection::category).contains("Hiking");
+
+        Thread.sleep(250);
+        assertThat(tourCatalog.findById(tour.getId())).map(TourProjection::category).contains("Climbing");
+        assertThat(tourCatalog.findByCategory("climbing")).isPresent();
+    }
+}
@@ -0,0 +1,81 @@
+package gr.aueb.cf.tourapp.service;
+
+import gr.aueb.cf.tourapp.authentication.UserIdentityListener;
+import gr.aueb.cf.tourapp.authentication.UserIdentityService;
+import gr.aueb.cf.tourapp.core.exceptions.AppObjectAlreadyExistsException;
+import gr.aueb.cf.tourapp.core.exceptions.AppObjectNotFoundException;
+import gr.aueb.cf.tourapp.dto.TourInsertDTO;
+import gr.aueb.cf.tourapp.mapper.Mapper;
+import gr.aueb.cf.tourapp.model.Tour;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static gr.aueb.cf.tourapp.Fixtures.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The write guards go to the table, since the catalog may not yet have seen a write made on
+ * another node or directly in the database.
+ */
+@DataJpaTest(properties = "app.tours.catalog-ttl=PT1H")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TourService.class, Mapper.class, BCryptPasswordEncoder.class,
+        UserIdentityService.class, UserIdentityListener.class, TourCatalog.class})
+class TourServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TourService tourService;
+
+    @Autowired
+    private TourCatalog tourCatalog;
+
+    @BeforeEach
+    void setUp() {
+        tourCatalog.invalidate();
+        assertThat(tourCatalog.findAll()).isEmpty();
+    }
+
+    @Test
+    void saveTourRejectsACategoryTheCatalogHasNotSeenYet() {
+        entityManager.persistAndFlush(tour("Hiking", 50.0));
+
+        assertThatThrownBy(() -> tourService.saveTour(new TourInsertDTO("Hiking", 60.0)))
+                .isInstanceOf(AppObjectAlreadyExistsException.class);
+    }
+
+    @Test
+    void deleteByTourIdDeletesATourTheCatalogHasNotSeenYet() {
+        Tour tour = entityManager.persistAndFlush(tour("Hiking", 50.0));
+
+        tourService.deleteByTourId(tour.getId());
+        entityManager.flush();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from tours", Integer.class)).isZero();
+    }
+
+    @Test
+    void deleteByTourIdOfATourDeletedBehindTheCatalogIsNotFound() {
+        Tour tour = entityManager.persistAndFlush(tour("Hiking", 50.0));
+        tourCatalog.invalidate();
+        assertThat(tourCatalog.findById(tour.getId())).isPresent();
+
+        jdbcTemplate.update("delete from tours where id = ?", tour.getId());
+
+        assertThatThrownBy(() -> tourService.deleteByTourId(tour.getId()))
+                .isInstanceOf(AppObjectNotFoundException.class);
+    }
+}